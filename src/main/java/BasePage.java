@@ -2,10 +2,41 @@
 // WebDriver is used for interacting with the browser in automation testing.
 import org.openqa.selenium.WebDriver;
 
-// Importing PageFactory class from the Selenium library.
-// PageFactory is a support class in Selenium for implementing the Page Object Model (POM) pattern.
-// It initializes WebElements within a page class.
-import org.openqa.selenium.support.PageFactory;
+// Importing WebElement, the type of the page-object fields.
+import org.openqa.selenium.WebElement;
+
+// Importing BulkExtractor, which reads values from a whole list of elements in one round trip.
+import Utils.BulkExtractor;
+
+// Importing CachingElementLocatorFactory, which lets page-object fields remember the element they found.
+import Utils.CachingElementLocatorFactory;
+
+// Importing LazyElement and LazyElementList, the values the generated bindings put into page-object fields.
+import Utils.LazyElement;
+import Utils.LazyElementList;
+
+// Importing FormFiller, which fills a whole form in one batched operation.
+import Utils.FormFiller;
+
+// Importing PageSettler, which waits until the page has stopped loading, animating and changing.
+import Utils.PageSettler;
+
+// Importing ScreenshotStore, which stores compressed, deduplicated screenshots for the report.
+import Utils.ScreenshotStore;
+
+// Importing StepTimeline, which times every page-object action for the timeline attached to the test report.
+import Utils.StepTimeline;
+
+// Importing WaitTelemetry, which times every explicit wait and can adapt timeouts to what it has observed.
+import Utils.WaitTelemetry;
+import com.aventstack.extentreports.Status;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 // Declaring an abstract class named BasePage.
 // An abstract class is a class that cannot be instantiated and can have abstract methods (methods without a body).
@@ -17,6 +48,12 @@ public abstract class BasePage {
     // and by subclasses in other packages.
     protected WebDriver driver;
 
+    // Locator factory of this page; the elements it caches are dropped whenever the browser navigates.
+    private final CachingElementLocatorFactory locatorFactory;
+
+    // Default timeout, in seconds, for explicit waits started from a page object.
+    public static final long DEFAULT_WAIT_SECONDS = 10;
+
     // Constructor for the BasePage class that takes a WebDriver object as an argument.
     // When a new instance of a class that extends BasePage is created, this constructor will be called,
     // and the passed WebDriver object will be assigned to the 'driver' variable.
@@ -24,9 +61,117 @@ public abstract class BasePage {
         // Assigning the passed WebDriver object to the 'driver' variable.
         this.driver = driver;
 
-        // Initializing the WebElements of the class that extends BasePage using PageFactory.
-        // 'this' refers to the current class instance, so the PageFactory will initialize the WebElements
-        // defined in the current page class (which extends BasePage).
-        PageFactory.initElements(driver, this);
+        // The WebElements of the class that extends BasePage are not initialized here anymore.
+        // Each page class calls its generated <Page>_Elements.bind(this), written at compile time by
+        // Utils.PageBindingProcessor from the @FindBy annotations, which fills the fields through element(...)
+        // and elements(...) below without reflection.
+        // The caching locators find each element once and reuse it, locating it again only when it goes stale.
+        locatorFactory = new CachingElementLocatorFactory(driver);
+    }
+
+    // Called by the generated bindings for every WebElement field: nothing is looked up until the element is used.
+    protected WebElement element(By by, String name) {
+        return new LazyElement(locatorFactory.createLocator(by), getClass().getSimpleName() + "." + name);
+    }
+
+    // Called by the generated bindings for every List<WebElement> field: the list is located again on every use.
+    protected List<WebElement> elements(By by) {
+        return new LazyElementList(locatorFactory.createLocator(by));
+    }
+
+    // Forgets every element cached for this browser, by this page and every other page object using it.
+    public void invalidateElementCache() {
+        CachingElementLocatorFactory.invalidate(driver);
+    }
+
+    // Clicks an element that leads to another page or view, so the elements cached on the old one are dropped.
+    protected void navigatingClick(WebElement element) {
+        element.click();
+        invalidateElementCache();
+    }
+
+    // Waits until the page is settled: loaded, no fetch/XHR requests in flight, no running animations,
+    // and no DOM changes for the configured quiet period. Use this instead of Thread.sleep(...).
+    // A page that never goes quiet (a carousel, long polling) is not an error: after the budget the test goes on,
+    // like it did after the fixed sleeps, and the page state is logged.
+    public void waitForPageToSettle() {
+        StepTimeline.quietStep("wait for page to settle", () -> PageSettler.settle(driver));
+    }
+
+    // Same as waitForPageToSettle(), with an explicit quiet period and timeout in milliseconds.
+    public void waitForPageToSettle(long quietMillis, long timeoutMillis) {
+        StepTimeline.quietStep("wait for page to settle", () -> PageSettler.settle(driver, quietMillis, timeoutMillis));
+    }
+
+    // Waits until the given condition is met, for at most DEFAULT_WAIT_SECONDS.
+    // Every wait is timed per locator and condition (see WaitTelemetry), so use this instead of a raw WebDriverWait.
+    public <T> T waitFor(ExpectedCondition<T> condition) {
+        return waitFor(condition, DEFAULT_WAIT_SECONDS);
+    }
+
+    // Same as waitFor(condition), with an explicit upper bound in seconds.
+    public <T> T waitFor(ExpectedCondition<T> condition, long timeoutSeconds) {
+        return WaitTelemetry.until(driver, condition, timeoutSeconds);
+    }
+
+    // The bulk reads and fillForm below run their lookups inside the page, so their locators must be created
+    // with Utils.Locator (Locator.id, Locator.xpath, ...); a plain Selenium By is rejected.
+
+    // Returns the visible text of every element matching the locator, fetched in a single round trip.
+    public List<String> textsOf(By by) {
+        return StepTimeline.step("read text of " + by, () -> BulkExtractor.column(driver, by, "text"));
+    }
+
+    // Returns the given attribute of every element matching the locator, fetched in a single round trip.
+    public List<String> attributesOf(By by, String attribute) {
+        return StepTimeline.step("read " + attribute + " of " + by, () -> BulkExtractor.column(driver, by, "attr:" + attribute));
+    }
+
+    // Returns the computed CSS value of every element matching the locator, fetched in a single round trip.
+    public List<String> computedStylesOf(By by, String property) {
+        return StepTimeline.step("read style " + property + " of " + by, () -> BulkExtractor.column(driver, by, "style:" + property));
+    }
+
+    // Reads several fields ("text", "attr:href", "prop:value", "style:color", ...) of every matching element at once,
+    // one map per element.
+    public List<Map<String, String>> extract(By by, String... fields) {
+        return StepTimeline.step("read " + String.join(", ", fields) + " of " + by, () -> BulkExtractor.extract(driver, by, fields));
+    }
+
+    // Same as extract(by, fields), turning every element's values into a typed object (e.g. a record).
+    public <T> List<T> extract(By by, Function<Map<String, String>, T> mapper, String... fields) {
+        return StepTimeline.step("read " + String.join(", ", fields) + " of " + by, () -> BulkExtractor.extract(driver, by, mapper, fields));
+    }
+
+    // Fills every field of the map (locator -> value) in one batched operation, firing the input/change events
+    // React-style apps rely on. Fields that cannot be set this way are typed key by key.
+    public void fillForm(Map<By, String> fields) {
+        fillForm(fields, FormFiller.defaultMode());
+    }
+
+    // Same as fillForm(fields), choosing explicitly between the batched script and real keystrokes.
+    public void fillForm(Map<By, String> fields, FormFiller.Mode mode) {
+        StepTimeline.step("fill " + fields.size() + " form fields", () -> FormFiller.fill(driver, fields, mode));
+    }
+
+    // Records a composite action of a page (e.g. a whole login) as one step of the test's timeline,
+    // with the clicks, inputs and waits it makes nested under it.
+    // With SCREENSHOTS=steps a screenshot of the page is attached to the report after every such step.
+    protected void step(String name, Runnable action) {
+        StepTimeline.step(getClass().getSimpleName() + "." + name, action);
+        screenshotAfter(name);
+    }
+
+    // Same as step(name, action), for an action that returns a value.
+    protected <T> T step(String name, Supplier<T> action) {
+        T result = StepTimeline.step(getClass().getSimpleName() + "." + name, action);
+        screenshotAfter(name);
+        return result;
+    }
+
+    private void screenshotAfter(String name) {
+        if (ScreenshotStore.mode() == ScreenshotStore.Mode.STEPS && ExtentTestNGITestListener.getTest() != null) {
+            ExtentTestNGITestListener.getTest().screenshot(driver, Status.INFO, "After " + getClass().getSimpleName() + "." + name);
+        }
     }
 }
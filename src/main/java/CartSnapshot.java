@@ -0,0 +1,126 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+// Everything the fasttrackit cart shows, read in one round trip and parsed into exact decimal amounts.
+// Take a new snapshot after every change to the cart (adding, removing, changing quantities) and assert on it,
+// instead of scraping and parsing individual price cells again and again.
+public class CartSnapshot {
+
+    // One product row of the cart: name, quantity, unit price and the row total.
+    public record LineItem(String name, int quantity, BigDecimal unitPrice, BigDecimal lineTotal) {
+    }
+
+    // Line items are the rows holding a quantity control; the summary is the three td.amount cells
+    // (items total, tax, total) of the totals table.
+    private static final String SCRIPT =
+            "var money = /^\\$\\s*\\d[\\d,]*(\\.\\d+)?$/;" +
+            "var leaves = function (root) {" +
+            "  return Array.prototype.filter.call(root.querySelectorAll('*'), function (e) { return e.children.length === 0; })" +
+            "      .map(function (e) { return (e.innerText || e.textContent || '').trim(); });" +
+            "};" +
+            "var rows = [];" +
+            "document.querySelectorAll('.fa-plus-circle').forEach(function (icon) {" +
+            "  var row = icon.closest('.row');" +
+            "  if (row && rows.indexOf(row) < 0) { rows.push(row); }" +
+            "});" +
+            "var items = rows.map(function (row) {" +
+            "  var texts = leaves(row);" +
+            "  var link = row.querySelector('a');" +
+            "  return {" +
+            "    name: link ? link.innerText.trim() : ''," +
+            "    quantity: texts.filter(function (t) { return /^\\d+$/.test(t); })[0] || '1'," +
+            "    prices: texts.filter(function (t) { return money.test(t); })" +
+            "  };" +
+            "});" +
+            "var amounts = Array.prototype.map.call(document.querySelectorAll('td.amount'), function (e) { return e.innerText.trim(); });" +
+            "return { items: items, amounts: amounts };";
+
+    private final List<LineItem> items;
+    private final BigDecimal itemsTotal;
+    private final BigDecimal tax;
+    private final BigDecimal total;
+
+    private CartSnapshot(List<LineItem> items, BigDecimal itemsTotal, BigDecimal tax, BigDecimal total) {
+        this.items = Collections.unmodifiableList(items);
+        this.itemsTotal = itemsTotal;
+        this.tax = tax;
+        this.total = total;
+    }
+
+    public static CartSnapshot capture(WebDriver driver) {
+        Map<?, ?> cart = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(SCRIPT);
+
+        List<LineItem> items = new ArrayList<>();
+        for (Object raw : (List<?>) cart.get("items")) {
+            Map<?, ?> item = (Map<?, ?>) raw;
+            List<?> prices = (List<?>) item.get("prices");
+            int quantity = Integer.parseInt(item.get("quantity").toString());
+            BigDecimal unitPrice = prices.isEmpty() ? BigDecimal.ZERO : parseAmount(prices.get(0).toString());
+            BigDecimal lineTotal = prices.size() > 1
+                    ? parseAmount(prices.get(prices.size() - 1).toString())
+                    : unitPrice.multiply(BigDecimal.valueOf(quantity));
+            items.add(new LineItem(item.get("name").toString(), quantity, unitPrice, lineTotal));
+        }
+
+        List<?> amounts = (List<?>) cart.get("amounts");
+        if (amounts.size() < 3) {
+            throw new IllegalStateException("Expected items total, tax and total on the cart page but found " + amounts);
+        }
+
+        return new CartSnapshot(items,
+                parseAmount(amounts.get(0).toString()),
+                parseAmount(amounts.get(1).toString()),
+                parseAmount(amounts.get(2).toString()));
+    }
+
+    // "$1,234.5" -> 1234.50
+    static BigDecimal parseAmount(String text) {
+        return new BigDecimal(text.replace("$", "").replace(",", "").trim()).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public List<LineItem> getItems() {
+        return items;
+    }
+
+    public int getQuantity() {
+        return items.stream().mapToInt(LineItem::quantity).sum();
+    }
+
+    public BigDecimal getItemsTotal() {
+        return itemsTotal;
+    }
+
+    public BigDecimal getTax() {
+        return tax;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public BigDecimal getLinesTotal() {
+        return items.stream().map(LineItem::lineTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // Checks that the cart adds up: line totals sum to the items total, and items total plus tax is the total.
+    public void assertConsistent() {
+        assertTrue(!items.isEmpty(), "No line items found in the cart");
+        assertEquals(getLinesTotal(), itemsTotal, "Line totals do not add up to the items total");
+        assertEquals(itemsTotal.add(tax), total, "Items total plus tax does not add up to the total");
+    }
+
+    @Override
+    public String toString() {
+        return "Cart " + items + ", items total " + itemsTotal + ", tax " + tax + ", total " + total;
+    }
+}
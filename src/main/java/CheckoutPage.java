@@ -1,46 +1,47 @@
+import Utils.Locator;
 import com.aventstack.extentreports.Status;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.asserts.SoftAssert;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static java.lang.Double.parseDouble;
 
 
 // Declaring the CheckoutPage class, which extends the BasePage class.
-// By extending BasePage, CheckoutPage inherits the WebDriver instance and the PageFactory initialization.
+// By extending BasePage, CheckoutPage inherits the WebDriver instance and the lazy element factories used by its generated bindings.
 public class CheckoutPage extends BasePage {
 
-    // Declaring a public WebDriverWait variable named 'wait'.
-    // WebDriverWait is used for implementing explicit waits during interactions with web elements.
-    public WebDriverWait wait;
-
     public SoftAssert softAssert;
     
     // Constructor for the CheckoutPage class that takes a WebDriver object as an argument.
     // This constructor calls the parent class (BasePage) constructor to initialize the WebDriver instance
-    // and sets up the PageFactory to initialize the web elements on this page.
+    // and binds the web elements of this page through the generated binding class.
     public CheckoutPage(WebDriver driver) {
         // Calling the parent class (BasePage) constructor using 'super' to initialize the WebDriver.
         super(driver);
 
-        // Initializing the WebDriverWait object with a 10-second timeout.
-        // This will be used to wait for certain conditions or elements during test execution.
-        wait = new WebDriverWait(driver, 10);
+        // Assigning the @FindBy fields below through the binding generated at compile time.
+        CheckoutPage_Elements.bind(this);
+
+        // Explicit waits go through waitFor(...) from BasePage, which times them and applies the default timeout.
         softAssert = new SoftAssert();
     }
 
     // Locating the search bar element using the @FindBy annotation.
     // @FindBy is a Selenium annotation that helps locate elements on the web page.
     // Here, the element is being located by its 'id' attribute with the value "input-search".
-    // Declare the WebElement as private to enforce encapsulation
-    // This ensures that 'searchBar' cannot be accessed directly from outside this class
+    // The WebElement fields are package-private rather than private, because the generated
+    // CheckoutPage_Elements class assigns them directly; everything outside the page still goes through its methods.
     @FindBy(id = "input-search")
-    private WebElement searchBar;
+    WebElement searchBar;
 
     // A public method to set a value in the search bar.
     // This method interacts with the searchBar element and sends the text "mouse" to it.
@@ -56,105 +57,118 @@ public class CheckoutPage extends BasePage {
     // Here, the button has the classes "btn", "btn-light", and "btn-sm".
 
     @FindBy(css = ".btn.btn-light.btn-sm")
-    private WebElement searchButton;
+    WebElement searchButton;
 
     public void clickSearchButton() {
-        searchButton.click();
+        navigatingClick(searchButton);
     }
 
     @FindBy(linkText = "Refined Frozen Mouse")
-    private WebElement frozenMouse;
+    WebElement frozenMouse;
 
     public WebElement getFrozenMouse() {
         return frozenMouse;
     }
 
     @FindBy(linkText = "Awesome Granite Chips")
-    private WebElement awesomeChipsProduct;
+    WebElement awesomeChipsProduct;
 
     public void clickAwesomeChipsLink() {
-        awesomeChipsProduct.click();
+        navigatingClick(awesomeChipsProduct);
     }
 
     @FindBy(css = ".svg-inline--fa.fa-cart-plus.fa-w-18.fa-3x")
-    private WebElement cartIcon;
+    WebElement cartIcon;
 
     public void clickCartIcon() {
-        cartIcon.click();
+        navigatingClick(cartIcon);
     }
 
     @FindBy(css = ".svg-inline--fa.fa-shopping-cart.fa-w-18")
-    private WebElement shoppingCartIcon;
+    WebElement shoppingCartIcon;
 
     public void clickShoppingCartIcon() {
-        shoppingCartIcon.click();
+        navigatingClick(shoppingCartIcon);
     }
 
     @FindBy(css = ".svg-inline--fa.fa-angle-right.fa-w-8")
-    private WebElement checkoutButton;
+    WebElement checkoutButton;
 
     public void clickCheckoutButton() {
-        checkoutButton.click();
+        navigatingClick(checkoutButton);
     }
 
-    @FindBy(id = "first-name")
-    private WebElement firstName;
+    private static final String FIRST_NAME_ID = "first-name";
+    private static final String LAST_NAME_ID = "last-name";
+    private static final String ADDRESS_ID = "address";
+
+    @FindBy(id = FIRST_NAME_ID)
+    WebElement firstName;
 
     public void insertFirstName() {
         firstName.sendKeys("Beniamin");
     }
 
-    @FindBy(id = "last-name")
-    private WebElement lastName;
+    @FindBy(id = LAST_NAME_ID)
+    WebElement lastName;
 
     public void insertLastName() {
         lastName.sendKeys("Cazacu");
     }
 
-    @FindBy(id = "address")
-    private WebElement address;
+    @FindBy(id = ADDRESS_ID)
+    WebElement address;
 
     public void insertAddress() {
         address.sendKeys("Suceava");
     }
 
+    // Fills first name, last name and address in one batched operation instead of three separate sendKeys calls.
+    public void fillCheckoutForm() {
+        Map<By, String> fields = new LinkedHashMap<>();
+        fields.put(Locator.id(FIRST_NAME_ID), "Beniamin");
+        fields.put(Locator.id(LAST_NAME_ID), "Cazacu");
+        fields.put(Locator.id(ADDRESS_ID), "Suceava");
+        fillForm(fields);
+    }
+
     @FindBy(css = ".btn.btn-success")
-    private WebElement continueCheckout;
+    WebElement continueCheckout;
 
     public void clickContinueCheckout() {
-        continueCheckout.click();
+        navigatingClick(continueCheckout);
     }
 
     @FindBy(css = ".btn.btn-success")
-    private WebElement completeOrder;
+    WebElement completeOrder;
 
     public void clickCompleteOrder() {
-        completeOrder.click();
+        navigatingClick(completeOrder);
     }
 
     @FindBy(css = ".text-muted")
-    private WebElement successMessage;
+    WebElement successMessage;
 
     public WebElement getSuccessMessage() {
         return successMessage;
     }
 
     @FindBy(css = ".svg-inline--fa.fa-heart.fa-w-16.fa-3x ")
-    private WebElement heartIcon;
+    WebElement heartIcon;
 
     public void clickHeartIcon() {
         heartIcon.click();
     }
 
     @FindBy(css = ".fa-layers-counter.shopping_cart_badge")
-    private WebElement shoppingCartBadge;
+    WebElement shoppingCartBadge;
 
     public WebElement getShoppingCartBadge() {
         return shoppingCartBadge;
     }
 
     public void clickShoppingCartBadge() {
-        shoppingCartBadge.click();
+        navigatingClick(shoppingCartBadge);
     }
 
     public WebElement getAwesomeChipsProduct(){
@@ -162,102 +176,102 @@ public class CheckoutPage extends BasePage {
     }
 
     @FindBy(css = ".svg-inline--fa.fa-heart-broken.fa-w-16.fa-2x ")
-    private WebElement brokenHeartIcon;
+    WebElement brokenHeartIcon;
 
     public void clickBrokenHeartIcon(){
         brokenHeartIcon.click();
     }
 
     @FindBy(linkText = "Awesome Soft Shirt")
-    private WebElement awesomeShirt;
+    WebElement awesomeShirt;
 
     public void clickAwesomeShirt() {
-        awesomeShirt.click();
+        navigatingClick(awesomeShirt);
     }
 
     @FindBy(css = ".svg-inline--fa.fa-cart-plus.fa-w-18.fa-3x ")
-    private WebElement add2Cart;
+    WebElement add2Cart;
 
     public void clickAdd2Cart() {
         add2Cart.click();
     }
 
     @FindBy(css = ".svg-inline--fa.fa-shopping-cart.fa-w-18 ")
-    private WebElement cartBtn;
+    WebElement cartBtn;
 
     public void clickCartBtn() {
-        cartBtn.click();
+        navigatingClick(cartBtn);
     }
 
     @FindBy(css = ".svg-inline--fa.fa-plus-circle.fa-w-16 ")
-    private WebElement plusOne;
+    WebElement plusOne;
 
     public void clickPlusOne() {
         plusOne.click();
     }
 
     @FindBy(css = ".amount-total")
-    private WebElement validationTotal;
+    WebElement validationTotal;
 
     public WebElement getValidationTotal() {
         return validationTotal;
     }
 
-    @FindBy(xpath = "(//td[@class='amount'])[1]")
-    private WebElement itemPrice;
+    // Reads every line item, the items total, tax and total of the cart in one round trip.
+    public CartSnapshot cartSnapshot() {
+        return CartSnapshot.capture(driver);
+    }
 
     public double productPrice() {
-        String amountValue = itemPrice.getText();
-        String cleanAmountValue = amountValue.replace("$", "");
-        return Double.parseDouble(cleanAmountValue);
+        return cartSnapshot().getItemsTotal().doubleValue();
     }
 
     //Compare two smartphones on emag website
 
     @FindBy(id = "searchboxTrigger")
-    private WebElement searchBox;
+    WebElement searchBox;
 
     public void insertTextInSearchBox(String search) {
         searchBox.sendKeys(search);
     }
 
     @FindBy(css = ".btn.btn-default.searchbox-submit-button")
-    private WebElement mainSearchButton;
+    WebElement mainSearchButton;
 
     public void clickMainSearchButton() {
-        mainSearchButton.click();
+        navigatingClick(mainSearchButton);
     }
 
     @FindBy(xpath = "//*[@data-name = 'Telefon mobil Google Pixel 9 Pro, 256GB, 16GB RAM, 5G, Rose Quartz']")
-    private WebElement googlePixel9Pro;
+    WebElement googlePixel9Pro;
 
     public void clickFirstSmartphone() {
         googlePixel9Pro.click();
     }
 
     @FindBy(xpath = "//div[@class = 'checkbox checkbox-custom']")
-    private WebElement compareCheckbox;
+    WebElement compareCheckbox;
 
     public void clickCompareCheckbox() {
         compareCheckbox.click();
     }
 
     @FindBy(xpath = "//*[@data-name = 'Telefon mobil Samsung Galaxy S24 Ultra, Dual SIM, 12GB RAM, 512GB, 5G, Titanium Black']")
-    private WebElement samsungGalaxyS24Ultra;
+    WebElement samsungGalaxyS24Ultra;
 
     public void clickSecondSmartphone() {
         samsungGalaxyS24Ultra.click();
     }
 
     @FindBy(css = ".btn.btn-sm.btn-info")
-    private WebElement compareButton;
+    WebElement compareButton;
 
     public void clickCompareButton() {
-        compareButton.click();
+        navigatingClick(compareButton);
     }
 
     @FindBy(xpath = "//h1[text()='Compară produse']")
-    private WebElement heading;
+    WebElement heading;
 
     public WebElement getHeading() {
         return heading;
@@ -266,21 +280,21 @@ public class CheckoutPage extends BasePage {
     //Add/Delete product to/from favorite on emag
 
     @FindBy(xpath = "//*[contains(@class, 'add-to-favorites btn') and contains(@data-product, 'Telefon mobil Google Pixel 9 Pro, 128GB, 16GB RAM, 5G, Hazel')]")
-    private WebElement addToFavoriteButton;
+    WebElement addToFavoriteButton;
 
     public void clickAddToFavoriteButton() {
         addToFavoriteButton.click();
     }
 
     @FindBy(id = "my_wishlist")
-    private WebElement wishlist;
+    WebElement wishlist;
 
     public void clickWishlist() {
-        wishlist.click();
+        navigatingClick(wishlist);
     }
 
     @FindBy(css = ".products-number.hidden-xs.js-products-count")
-    private WebElement productsNumber;
+    WebElement productsNumber;
 
     public String favoriteProducts() {
         if(productsNumber.getText().replace("1 lista", "").contains("1"))
@@ -291,7 +305,7 @@ public class CheckoutPage extends BasePage {
     }
 
     @FindBy(css = ".gtm_9p2y1a.d-none.d-md-inline-block")
-    private WebElement deleteProductButton;
+    WebElement deleteProductButton;
 
     public void clickDeleteProductButton() {
         deleteProductButton.click();
@@ -300,35 +314,35 @@ public class CheckoutPage extends BasePage {
     //Apply some filters for laptop category on emag
 
     @FindBy(css = ".navbar-aux-content__departments")
-    private WebElement menu;
+    WebElement menu;
 
     public void clickMenu() {
         menu.click();
     }
 
     @FindBy(xpath = "//*[@class = 'megamenu-list-department js-megamenu-list-department'][1]")
-    private WebElement laptopTabletPhoneCategory;
+    WebElement laptopTabletPhoneCategory;
 
     public void clickLaptopTabletPhoneCategory() {
         laptopTabletPhoneCategory.click();
     }
 
     @FindBy(linkText = "Laptopuri si accesorii")
-    private WebElement laptopsAndAccessories;
+    WebElement laptopsAndAccessories;
 
     public void clickLaptopsAndAccessories() {
         laptopsAndAccessories.click();
     }
 
     @FindBy(linkText = "Laptopuri")
-    private WebElement laptops;
+    WebElement laptops;
 
     public void clickLaptops() {
-        laptops.click();
+        navigatingClick(laptops);
     }
 
     @FindBy(css = ".form-control.js-custom-price-min")
-    private WebElement minimPrice;
+    WebElement minimPrice;
 
     public void insertMinimPrice() {
         minimPrice.clear();
@@ -336,7 +350,7 @@ public class CheckoutPage extends BasePage {
     }
 
     @FindBy(css = ".form-control.js-custom-price-max")
-    private WebElement maximPrice;
+    WebElement maximPrice;
 
     public void insertMaximPrice() {
         maximPrice.clear();
@@ -344,14 +358,14 @@ public class CheckoutPage extends BasePage {
     }
 
     @FindBy(css = ".btn.btn-alt.js-custom-price-trigger.btn-primary")
-    private WebElement intervalFilterButton;
+    WebElement intervalFilterButton;
 
     public void clickIntervalFilterButton() {
-        intervalFilterButton.click();
+        navigatingClick(intervalFilterButton);
     }
 
     @FindBy(xpath = "//h1[text()='Laptopuri - Pret: 3.000 - 5.000']")
-    private WebElement filterHeading;
+    WebElement filterHeading;
 
     public WebElement getFilterHeading() {
         return filterHeading;
@@ -365,38 +379,30 @@ public class CheckoutPage extends BasePage {
     }
 
     public void addProductToCart() {
-        clickAwesomeShirt();
-        clickAdd2Cart();
-        clickCartBtn();
+        step("addProductToCart", () -> {
+            clickAwesomeShirt();
+            clickAdd2Cart();
+            clickCartBtn();
+        });
     }
 
-    @FindBy (xpath = "(//td[@class='amount'])[2]")
-    private WebElement taxPrice;
-
     public double taxPrice() {
-        String taxValue = taxPrice.getText();
-        String cleanTaxValue = taxValue.replace("$", "");
-        return Double.parseDouble(cleanTaxValue);
+        return cartSnapshot().getTax().doubleValue();
     }
 
-    @FindBy (xpath = "(//td[@class='amount'])[3]")
-    private WebElement totalPrice;
-
     public double totalPrice() {
-        String totalValue = totalPrice.getText();
-        String cleanTotalValue = totalValue.replace("$", "");
-        return Double.parseDouble(cleanTotalValue);
+        return cartSnapshot().getTotal().doubleValue();
     }
 
     @FindBy(css = ".svg-inline--fa.fa-trash.fa-w-14 ")
-    private WebElement deleteItemButton;
+    WebElement deleteItemButton;
 
     public void clickDeleteItemButton() {
         deleteItemButton.click();
     }
 
     @FindBy(css = ".text-center.container")
-    private WebElement emptyCartText;
+    WebElement emptyCartText;
 
     public WebElement getEmptyCartText() {
         return emptyCartText;
@@ -0,0 +1,90 @@
+import Utils.RunConfig;
+import Utils.TestHistory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Starts the longest tests first when tests run in parallel, using the durations in Utils.TestHistory.
+// TestNG hands the next test to whichever worker thread (browser) frees up first, so ordering longest first is
+// the longest-processing-time rule: no browser is left running one long test while the others sit idle at the end.
+// A test's expected duration is the median total time of its last SCHEDULER_HISTORY_RUNS (default 10) runs; tests
+// without history are expected to take as long as the median known test, or SCHEDULER_DEFAULT_SECONDS (default 60)
+// when nothing is known yet. Sequential runs take equally long in any order and are left as they are.
+// Listed after StartUrlInterceptor, its grouping by start page is kept for tests expected to take equally long.
+public class DurationScheduler implements IMethodInterceptor {
+
+    private static final int HISTORY_RUNS = RunConfig.getInt("SCHEDULER_HISTORY_RUNS", 10);
+    private static final long DEFAULT_MILLIS = RunConfig.getInt("SCHEDULER_DEFAULT_SECONDS", 60) * 1000L;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int browsers = browsers(context);
+        if (browsers <= 1 || methods.size() <= 1) {
+            return methods;
+        }
+
+        Map<IMethodInstance, Long> expected = expectedDurations(methods, TestHistory.load());
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        // A stable sort, so tests expected to take equally long keep their relative order
+        ordered.sort(Comparator.comparing(expected::get, Comparator.reverseOrder()));
+
+        System.out.printf("Scheduled %d tests longest first on %d browsers: about %d s instead of %d s%n",
+                ordered.size(), browsers, makespan(ordered, expected, browsers) / 1000,
+                makespan(methods, expected, browsers) / 1000);
+        return ordered;
+    }
+
+    private static int browsers(ITestContext context) {
+        XmlSuite.ParallelMode parallel = context.getCurrentXmlTest().getParallel();
+        if (parallel == null || parallel == XmlSuite.ParallelMode.NONE) {
+            return 1;
+        }
+        return context.getCurrentXmlTest().getThreadCount();
+    }
+
+    private static Map<IMethodInstance, Long> expectedDurations(List<IMethodInstance> methods, TestHistory history) {
+        Map<IMethodInstance, Long> expected = new HashMap<>();
+        List<Long> known = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            String test = TestHistory.testName(method.getMethod().getRealClass(), method.getMethod().getMethodName());
+            long median = history.median(test, TestHistory.Phase.TOTAL, HISTORY_RUNS);
+            if (median >= 0) {
+                expected.put(method, median);
+                known.add(median);
+            }
+        }
+
+        long unseen = DEFAULT_MILLIS;
+        if (!known.isEmpty()) {
+            known.sort(null);
+            unseen = known.get((known.size() - 1) / 2);
+        }
+        for (IMethodInstance method : methods) {
+            expected.putIfAbsent(method, unseen);
+        }
+        return expected;
+    }
+
+    // How long the run takes when each test goes to the browser that frees up first, in the given order.
+    private static long makespan(List<IMethodInstance> order, Map<IMethodInstance, Long> expected, int browsers) {
+        PriorityQueue<Long> freeAt = new PriorityQueue<>();
+        for (int i = 0; i < browsers; i++) {
+            freeAt.add(0L);
+        }
+        long end = 0;
+        for (IMethodInstance method : order) {
+            long finish = freeAt.poll() + expected.get(method);
+            freeAt.add(finish);
+            end = Math.max(end, finish);
+        }
+        return end;
+    }
+}
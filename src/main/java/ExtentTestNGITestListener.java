@@ -1,21 +1,90 @@
-import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
+import Utils.AsyncReportQueue;
+import Utils.JsonlReportSink;
+import Utils.LaunchProfile;
+import Utils.ReportEvent;
+import Utils.ReportMerger;
+import Utils.ReportRenderer;
+import Utils.ReportTest;
+import Utils.RunConfig;
+import Utils.ScreenshotStore;
+import Utils.RegressionDetector;
+import Utils.StepTimeline;
+import Utils.TestHistory;
 import com.aventstack.extentreports.Status;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-public class ExtentTestNGITestListener implements ITestListener {
-    private static ExtentReports extent = new ExtentReports();
-    private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExtentTestNGITestListener implements ITestListener, IInvokedMethodListener, ISuiteListener {
+    private static ThreadLocal<ReportTest> test = new ThreadLocal<>();
+
+    // Report events are queued by the test threads and appended by a single writer thread to an event log
+    // (REPORT_EVENT_LOG, default report-events.jsonl), so logging never waits on the report and nothing of the
+    // report is kept in memory. The HTML report is rendered from that log whenever the queue is flushed,
+    // unless REPORT_RENDER=false, in which case Utils.ReportRenderer renders it on demand.
+    // With REPORT_SHARD set, this JVM writes its own shard instead (see Utils.ReportMerger) and leaves rendering
+    // to the merge step, so parallel forks never touch the same files.
+    // REPORT_QUEUE_CAPACITY bounds how many events may be waiting before a test thread has to wait.
+    private static final String shard = RunConfig.get("REPORT_SHARD", null);
+    private static final Path eventLog = shard == null
+            ? Paths.get(RunConfig.get("REPORT_EVENT_LOG", "report-events.jsonl"))
+            : ReportMerger.shardFile(shard);
+    private static final Path html = Paths.get("extentReports.html");
+    private static final boolean render = RunConfig.getBoolean("REPORT_RENDER", shard == null);
+    private static final AsyncReportQueue queue = new AsyncReportQueue(new JsonlReportSink(eventLog, () -> {
+        if (render) {
+            ReportRenderer.render(List.of(eventLog), html);
+        }
+    }), RunConfig.getInt("REPORT_QUEUE_CAPACITY", 10_000));
+    private static final AtomicLong testIds = new AtomicLong();
+    private static final String REPORT_TEST = "reportTest";
+    private static final long SCREENSHOT_WAIT_SECONDS = 30;
+
+    // Setup, test and teardown times of the test running on each thread, recorded in Utils.TestHistory once the
+    // next test starts on that thread or the suite finishes, so every @AfterMethod is counted in its teardown.
+    // HISTORY=false turns the history off.
+    private static final boolean history = RunConfig.getBoolean("HISTORY", true);
+    private static final Map<Thread, Timing> timings = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Long> invocationStart = new ThreadLocal<>();
+
+    private static class Timing {
+        private String test;
+        private String outcome;
+        private long setupMillis;
+        private long testMillis;
+        private long teardownMillis;
+        private boolean setupFailed;
+    }
 
     static {
-        extent.attachReporter(new ExtentSparkReporter("extentReports.html"));
+        // Facts about where this report (or shard) was produced; the merge lists each distinct value once.
+        queue.submit(ReportEvent.systemInfo("Operating system", System.getProperty("os.name") + " " + System.getProperty("os.version")));
+        queue.submit(ReportEvent.systemInfo("Java", System.getProperty("java.version")));
+        queue.submit(ReportEvent.systemInfo("Launch profile", LaunchProfile.current().name()));
+        if (shard != null) {
+            queue.submit(ReportEvent.systemInfo("Shards", shard));
+        }
+
+        // A run that is aborted still gets its events on disk and, where possible, its HTML report.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ScreenshotStore.awaitPending(SCREENSHOT_WAIT_SECONDS);
+            queue.close();
+        }, "report-shutdown"));
     }
 
     // Provide access to the current test instance
-    public static ExtentTest getTest() {
+    public static ReportTest getTest() {
         return test.get();
     }
 
@@ -27,22 +96,71 @@ public class ExtentTestNGITestListener implements ITestListener {
     @Override
     public void onFinish(ITestContext context) {
         System.out.println("End of Execution(TEST): " + context.getName());
-        extent.flush();
+        // Waits until every screenshot is stored and everything logged so far is in the event log,
+        // and the HTML report is rendered from it
+        ScreenshotStore.awaitPending(SCREENSHOT_WAIT_SECONDS);
+        System.out.println("Screenshots: " + ScreenshotStore.statistics());
+        queue.flush();
+    }
+
+    // Once per suite, when no test of any <test> is running anymore
+    @Override
+    public void onFinish(ISuite suite) {
+        recordHistory();
     }
 
     @Override
     public void onTestStart(ITestResult result) {
         System.out.println("Test Started->" + result.getName());
-        test.set(extent.createTest(result.getMethod().getMethodName(), result.getMethod().getDescription()));
+        long id = testIds.incrementAndGet();
+        queue.submit(ReportEvent.createTest(id, result.getMethod().getMethodName(), result.getMethod().getDescription()));
+        ReportTest reportTest = new ReportTest(queue, id);
+        result.setAttribute(REPORT_TEST, reportTest);
+        test.set(reportTest);
+        // Page-object actions and waits of this test are timed from here on
+        StepTimeline.start();
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        if (!history) {
+            return;
+        }
+        Timing timing = timings.get(Thread.currentThread());
+        if (timing != null && startsNextTest(method, timing)) {
+            timings.remove(Thread.currentThread());
+            // A test whose setup failed never ran; its setup time is dropped rather than added to the next test.
+            if (timing.test != null) {
+                record(timing);
+            }
+        }
+        invocationStart.set(System.nanoTime());
+    }
+
+    // Runs right after the test method and before @AfterMethod hands the browser back, so the failing page
+    // is still on screen (onTestFailure only runs once the browser is gone).
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        boolean failed = result.getStatus() == ITestResult.FAILURE || result.getThrowable() != null;
+        if (method.isTestMethod() && failed && ScreenshotStore.mode() != ScreenshotStore.Mode.OFF
+                && Hooks.getDriver() != null && getTest() != null) {
+            getTest().screenshot(Hooks.getDriver(), Status.FAIL, "Screenshot at failure");
+        }
+        if (history && invocationStart.get() != null) {
+            time(method, result, (System.nanoTime() - invocationStart.get()) / 1_000_000);
+            invocationStart.remove();
+        }
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
+        attachTimeline();
         getTest().log(Status.PASS, "Test passed");
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
+        attachTimeline();
         Throwable throwable = result.getThrowable();
         if (throwable != null) {
             getTest().log(Status.FAIL, throwable.getMessage());
@@ -53,11 +171,17 @@ public class ExtentTestNGITestListener implements ITestListener {
 
     @Override
     public void onTestSkipped(ITestResult result) {
+        // Tests skipped because a configuration method failed (e.g. the locator preflight) were never started
+        if (result.getAttribute(REPORT_TEST) == null) {
+            onTestStart(result);
+        }
+        attachTimeline();
         getTest().log(Status.SKIP, "Test Skipped");
     }
 
     @Override
     public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        attachTimeline();
         getTest().log(Status.FAIL, "Test failed but within success percentage");
     }
 
@@ -65,4 +189,58 @@ public class ExtentTestNGITestListener implements ITestListener {
     public void onTestFailedWithTimeout(ITestResult result) {
         onTestFailure(result);
     }
+
+    // Adds the timed steps of the test that just ended to its report entry, as a collapsible table
+    private void attachTimeline() {
+        String timeline = StepTimeline.finish();
+        if (timeline != null) {
+            getTest().log(Status.INFO, timeline);
+        }
+    }
+
+    // Whether this invocation (a @BeforeMethod or a test) belongs to a new test rather than to the one the timing
+    // is collecting for: that one already ran, reached its teardown or failed its setup.
+    private static boolean startsNextTest(IInvokedMethod method, Timing timing) {
+        return (method.isTestMethod() || method.getTestMethod().isBeforeMethodConfiguration())
+                && (timing.test != null || timing.teardownMillis > 0 || timing.setupFailed);
+    }
+
+    private void time(IInvokedMethod method, ITestResult result, long millis) {
+        Timing timing = timings.computeIfAbsent(Thread.currentThread(), thread -> new Timing());
+        if (method.isTestMethod()) {
+            timing.test = TestHistory.testName(result.getTestClass().getRealClass(), result.getMethod().getMethodName());
+            timing.testMillis = millis;
+            timing.outcome = result.getStatus() == ITestResult.SUCCESS && result.getThrowable() == null ? "PASS"
+                    : result.getStatus() == ITestResult.SKIP ? "SKIP" : "FAIL";
+        } else if (method.getTestMethod().isBeforeMethodConfiguration()) {
+            timing.setupMillis += millis;
+            timing.setupFailed |= result.getStatus() == ITestResult.FAILURE || result.getThrowable() != null;
+        } else if (method.getTestMethod().isAfterMethodConfiguration()) {
+            timing.teardownMillis += millis;
+        }
+    }
+
+    private static void record(Timing timing) {
+        TestHistory.append(new TestHistory.Run(System.currentTimeMillis(), TestHistory.currentRun(), timing.test,
+                timing.outcome, timing.setupMillis, timing.testMillis, timing.teardownMillis));
+    }
+
+    // Records the tests still pending and reports the ones that took much longer than they usually do
+    private static void recordHistory() {
+        if (!history) {
+            return;
+        }
+        for (Thread thread : List.copyOf(timings.keySet())) {
+            Timing timing = timings.remove(thread);
+            if (timing != null && timing.test != null) {
+                record(timing);
+            }
+        }
+        List<RegressionDetector.Regression> regressions =
+                RegressionDetector.fromConfig().detect(TestHistory.load(), TestHistory.currentRun());
+        if (!regressions.isEmpty()) {
+            System.out.println("Tests slower than usual:");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+        }
+    }
 }
@@ -2,62 +2,82 @@
 // These classes are used for generating detailed and customizable test reports.
 import Utils.DatabaseUtils;
 
-// Importing WebDriverManager from the Bonigarcia library.
-// WebDriverManager automates the management of WebDriver binaries (e.g., ChromeDriver, GeckoDriver).
-import io.github.bonigarcia.wdm.WebDriverManager;
+// Importing RunConfig, which reads settings from system properties, the environment or the .env file.
+import Utils.RunConfig;
 
-// Importing WebDriver and ChromeDriver classes from the Selenium library.
-// WebDriver is used for interacting with the browser, and ChromeDriver is the specific implementation for Google Chrome.
-import org.openqa.selenium.Keys;
+// Importing DriverSessions, which hands out browser sessions (fresh or pooled) and takes them back.
+import Utils.DriverSessions;
+
+// Importing SessionReaper, which keeps track of every browser so none is leaked or left hanging.
+import Utils.SessionReaper;
+
+// Importing WebDriver class from the Selenium library.
+// WebDriver is used for interacting with the browser.
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
 
 // Importing TestNG annotations for setting up and tearing down test environments.
 // @BeforeMethod and @AfterMethod annotations define methods that are run before and after each test method.
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.interactions.Actions;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Test;
 import io.github.cdimascio.dotenv.Dotenv;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
 // Declaring a class named Hooks.
 // This class contains setup and teardown methods that are commonly used across multiple test cases.
 public class Hooks {
 
-    // Declaring a public WebDriver variable named 'driver'.
-    // This WebDriver instance will be used to control the browser during the tests.
-    public WebDriver driver;
+    // Declaring a ThreadLocal holder for the WebDriver instance.
+    // Every worker thread gets its own browser, so tests can run in parallel without sharing a session.
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
 
     private static final Dotenv dotenv = Dotenv.load(); //
 
+    // Group of the tests that create data in the shared HAIVE organisation (DB_ORG_ID_2).
+    // Only after these does tearDown delete the organisation's venues, so a test on another site never deletes them
+    // from under a HAIVE test running in parallel; the classes holding them keep them on one thread (singleThreaded).
+    protected static final String HAIVE_ORG = "haive-org";
+
+    // Timeout, in seconds, for explicit waits made directly from the tests.
+    protected static final long TEST_WAIT_SECONDS = 30;
+
+    // Method annotated with @BeforeSuite, indicating that it will run once before all tests.
+    // This method cleans up browsers leaked by earlier runs and starts the hung-test watchdog.
+    // With PREFLIGHT=true it then checks every page-object locator first; when any is broken the exception
+    // makes TestNG skip the whole suite, so no time is spent on tests that would fail on it.
+    @BeforeSuite(alwaysRun = true)
+    public void startSuite() {
+        SessionReaper.start();
+        if (RunConfig.getBoolean("PREFLIGHT", false)) {
+            LocatorPreflight.run();
+        }
+    }
+
     // Method annotated with @BeforeMethod, indicating that it will run before each test method.
     // This method sets up the WebDriver and initializes the browser.
+    // TestNG passes in the test method that is about to run, so its @StartUrl can be read.
     @BeforeMethod
-    public void setUp() {
-
-        // Using WebDriverManager to automatically download and set up the ChromeDriver binary.
-        WebDriverManager.chromedriver().setup();
-
-        // Initializing the WebDriver instance as a ChromeDriver, which launches a new Chrome browser window.
-
-        ChromeOptions options = new ChromeOptions();
+    public void setUp(Method testMethod) {
 
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--disable-search-engine-choice-screen");
+        String startUrl = StartUrlInterceptor.startUrlOf(testMethod);
 
-        driver = new ChromeDriver(options);
+        // Getting a ready-to-use Chrome session, either a freshly launched one or a reset one from the pool.
+        // The pool prefers a session that was last used on the same site.
+        driver.set(DriverSessions.acquire(startUrl));
+        SessionReaper.testStarted(getDriver());
 
-        // Maximizing the browser window to ensure that all elements are visible and accessible during the test.
-        driver.manage().window().maximize();
-
-        // Navigating to the specified URL in the browser. 
+        // Navigating to the URL declared by the test with @StartUrl (HAIVE when nothing is declared).
         // This is the starting point for the tests, loading the web application under test.
-        driver.get("https://demo.wearehaive.com/ro/solutions/restaurants");
-//        driver.get("https://fasttrackit-test.netlify.app/#/");
-//        driver.get("https://www.emag.ro/");
-        Actions actions = new Actions(driver);
-        actions.keyDown(Keys.CONTROL).sendKeys("s").keyUp(Keys.CONTROL).perform();
+        getDriver().get(startUrl);
+    }
+
+    // Provide access to the WebDriver instance owned by the current thread
+    public static WebDriver getDriver() {
+        return driver.get();
     }
 
 //
@@ -74,11 +94,47 @@ public class Hooks {
 
     // Method annotated with @AfterMethod, indicating that it will run after each test method.
     // This method tears down the WebDriver instance and closes the browser.
+    // With PREFLIGHT_CAPTURE_FIXTURES=true the page each test ends on is saved as a fixture for the locator preflight.
+    // Tests of the HAIVE_ORG group also get the venues of the shared organisation deleted.
     @AfterMethod
-    public void tearDown() {
-        DatabaseUtils.deleteVenueByOrganisationId(getDbOrganizationId2());
+    public void tearDown(Method testMethod) {
+        try {
+            if (getDriver() != null && RunConfig.getBoolean("PREFLIGHT_CAPTURE_FIXTURES", false)) {
+                LocatorPreflight.captureFixture(getDriver(),
+                        testMethod.getDeclaringClass().getSimpleName() + "." + testMethod.getName());
+            }
+            if (inGroup(testMethod, HAIVE_ORG)) {
+                DatabaseUtils.deleteVenueByOrganisationId(getDbOrganizationId2());
+            }
+        } finally {
+            // Handing the WebDriver session back, which either quits the browser or resets it for the next test.
+            // This runs even when the database cleanup fails, so the browser is never leaked.
+            SessionReaper.testFinished(getDriver());
+            if (getDriver() != null) {
+                DriverSessions.release(getDriver());
+            }
+            driver.remove();
+        }
+    }
 
-        // Quitting the WebDriver session, which closes all browser windows and ends the WebDriver process.
-        driver.quit();
+    // Whether the test method belongs to the group, through its own @Test or the one on its class.
+    private static boolean inGroup(Method testMethod, String group) {
+        for (Test test : new Test[]{testMethod.getAnnotation(Test.class), testMethod.getDeclaringClass().getAnnotation(Test.class)}) {
+            if (test != null && Arrays.asList(test.groups()).contains(group)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Method annotated with @AfterSuite, indicating that it will run once after all tests.
+    // This method closes any browser sessions that are still parked in the pool and reclaims leaked ones.
+    @AfterSuite(alwaysRun = true)
+    public void closeSessions() {
+        try {
+            DriverSessions.shutdown();
+        } finally {
+            SessionReaper.shutdown();
+        }
     }
 }
@@ -0,0 +1,78 @@
+import Utils.DriverFactory;
+import Utils.LocatorAudit;
+import Utils.PageSettler;
+import Utils.RunConfig;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Audit mode for the page-object locators: opens every target page, measures each @FindBy of the page objects
+// against it with LocatorAudit and writes a ranked report to LOCATOR_AUDIT_REPORT (default locator-audit.txt).
+// Arguments are Page=target pairs, where the target is a URL or the path of a saved HTML fixture, e.g.
+//   LoginPage=https://fasttrackit-test.netlify.app/#/ CheckoutPage=target/preflight-fixtures/cart.html
+// Without arguments every page is audited on the sites listed in PageLocators.defaultTargets().
+// LOCATOR_AUDIT_RUNS (default 50) sets how many times each locator is evaluated.
+public class LocatorAuditor {
+
+    public static void main(String[] args) throws IOException {
+        Map<String, List<String>> targets = args.length == 0 ? PageLocators.defaultTargets() : parseTargets(args);
+        int runs = RunConfig.getInt("LOCATOR_AUDIT_RUNS", 50);
+
+        List<LocatorAudit.Finding> findings = new ArrayList<>();
+        WebDriver driver = DriverFactory.createDriver();
+        try {
+            for (Map.Entry<String, List<String>> page : targets.entrySet()) {
+                if (!PageLocators.all().containsKey(page.getKey())) {
+                    throw new IllegalStateException("Unknown page object " + page.getKey() + ", known: " + PageLocators.all().keySet());
+                }
+                for (String target : page.getValue()) {
+                    String url = toUrl(target);
+                    driver.get(url);
+                    PageSettler.settle(driver);
+                    findings.addAll(LocatorAudit.audit(driver, page.getKey(), url, PageLocators.all().get(page.getKey()),
+                            PageLocators.listFields().get(page.getKey()), runs));
+                }
+            }
+        } finally {
+            driver.quit();
+        }
+
+        String report = LocatorAudit.report(findings, runs);
+        Path file = Paths.get(RunConfig.get("LOCATOR_AUDIT_REPORT", "locator-audit.txt"));
+        Files.write(file, report.getBytes(StandardCharsets.UTF_8));
+        System.out.println(report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private static Map<String, List<String>> parseTargets(String[] args) {
+        Map<String, List<String>> targets = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalStateException("Expected Page=target but got " + arg);
+            }
+            targets.computeIfAbsent(arg.substring(0, separator), page -> new ArrayList<>()).add(arg.substring(separator + 1));
+        }
+        return targets;
+    }
+
+    // URLs are used as they are; anything else is a fixture file on disk.
+    static String toUrl(String target) {
+        if (target.matches("^[a-zA-Z][a-zA-Z0-9+.-]*://.*")) {
+            return target;
+        }
+        Path fixture = Paths.get(target);
+        if (!Files.exists(fixture)) {
+            throw new IllegalStateException("Fixture " + fixture.toAbsolutePath() + " does not exist");
+        }
+        return fixture.toAbsolutePath().toUri().toString();
+    }
+}
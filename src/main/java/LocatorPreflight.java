@@ -0,0 +1,252 @@
+import Utils.DriverSessions;
+import Utils.LocatorAudit;
+import Utils.PageSettler;
+import Utils.RunConfig;
+import org.openqa.selenium.By;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Checks every @FindBy of the page objects before the suite spends time on browsers, logins and navigation.
+// Every start page of PageLocators.defaultTargets() and every saved fixture under PREFLIGHT_FIXTURES_DIR
+// (default target/preflight-fixtures) is opened in parallel (PREFLIGHT_THREADS, default 3), each with a short
+// page load budget (PREFLIGHT_TIMEOUT_SECONDS, default 15), and all locators are evaluated against it in one script.
+// A fixture is named after the test that ended on it (LoginTest.logoutFromHaive): run the suite with
+// PREFLIGHT_CAPTURE_FIXTURES=true and Hooks saves the DOM every test ends on. Capture again after the application
+// changed, since a fixture keeps the DOM of the day it was saved.
+// The preflight fails on an invalid locator, a page that cannot be checked, and a field that matches nothing on a
+// start page or fixture PageLocators.expectedOn() says it must be found on; all failures are reported together.
+// A field with no such page (or whose fixture was never captured) that matches nothing anywhere is only a warning:
+// it lives behind an interaction the preflight never sees. Matches on other pages never excuse a required one.
+public class LocatorPreflight {
+
+    private static final Path fixtures = Paths.get(RunConfig.get("PREFLIGHT_FIXTURES_DIR", "target/preflight-fixtures"));
+
+    // Serializes the current DOM without its scripts, so the snapshot stays exactly as the test saw it when reopened.
+    private static final String SNAPSHOT =
+            "var copy = document.documentElement.cloneNode(true);" +
+            "Array.prototype.forEach.call(copy.querySelectorAll('script'), function (s) { s.remove(); });" +
+            "return '<!DOCTYPE html>\\n' + copy.outerHTML;";
+
+    public static void main(String[] args) {
+        try {
+            run();
+        } finally {
+            DriverSessions.shutdown();
+        }
+    }
+
+    // Throws an IllegalStateException describing every invalid locator, every locator missing from a page it must be
+    // found on and every unreachable page, if there are any.
+    public static void run() {
+        long start = System.currentTimeMillis();
+        int timeoutSeconds = RunConfig.getInt("PREFLIGHT_TIMEOUT_SECONDS", 15);
+        // name (start URL or fixture name) -> URL to open
+        Map<String, String> targets = targets();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(targets.size(),
+                RunConfig.getInt("PREFLIGHT_THREADS", 3))), runnable -> {
+            Thread thread = new Thread(runnable, "locator-preflight");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Map<String, Future<List<LocatorAudit.Finding>>> checks = new LinkedHashMap<>();
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            checks.put(target.getKey(), executor.submit(() -> check(target.getKey(), target.getValue(), timeoutSeconds)));
+        }
+
+        List<LocatorAudit.Finding> findings = new ArrayList<>();
+        Map<String, String> unreachable = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<List<LocatorAudit.Finding>>> check : checks.entrySet()) {
+                try {
+                    // Twice the page budget leaves room for acquiring the browser and running the check itself.
+                    findings.addAll(check.getValue().get(timeoutSeconds * 2L, TimeUnit.SECONDS));
+                } catch (java.util.concurrent.TimeoutException e) {
+                    check.getValue().cancel(true);
+                    unreachable.put(check.getKey(), "no answer within " + timeoutSeconds * 2 + " s");
+                } catch (ExecutionException e) {
+                    unreachable.put(check.getKey(), String.valueOf(e.getCause()).split("\n")[0]);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted during the locator preflight.", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long locators = PageLocators.all().values().stream().mapToLong(Map::size).sum();
+        Map<String, Set<String>> required = required(targets.keySet());
+        String notFound = notFound(findings, required);
+        if (!notFound.isEmpty()) {
+            System.out.println("Locator preflight warning, not found on any of the " + targets.size()
+                    + " pages checked (fine for fields behind an interaction no fixture shows):\n" + notFound);
+        }
+        String failures = failures(findings, required, unreachable);
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Locator preflight failed, checked " + locators + " locators on "
+                    + targets.size() + " pages:\n" + failures + "Pages checked: " + targets.keySet());
+        }
+        System.out.println("Locator preflight passed: " + locators + " locators on " + targets.size() + " pages in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Saves the DOM the browser shows as a fixture the preflight will check against from now on.
+    public static void captureFixture(WebDriver driver, String name) {
+        try {
+            String html = (String) ((JavascriptExecutor) driver).executeScript(SNAPSHOT);
+            Files.createDirectories(fixtures);
+            Files.write(fixtures.resolve(name.replaceAll("[^\\w.-]", "_") + ".html"), html.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | WebDriverException e) {
+            System.out.println("Could not capture fixture " + name + ": " + e.getMessage());
+        }
+    }
+
+    // Every start URL (named by itself) and every saved fixture (named by its file, without .html), with the URL to open.
+    private static Map<String, String> targets() {
+        Map<String, String> targets = new LinkedHashMap<>();
+        PageLocators.defaultTargets().values().forEach(urls -> urls.forEach(url -> targets.put(url, url)));
+        if (Files.isDirectory(fixtures)) {
+            try (Stream<Path> files = Files.walk(fixtures)) {
+                for (Path file : files.filter(file -> file.toString().endsWith(".html")).sorted().collect(Collectors.toList())) {
+                    String name = file.getFileName().toString();
+                    targets.put(name.substring(0, name.length() - ".html".length()), file.toAbsolutePath().toUri().toString());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not list the fixtures in " + fixtures.toAbsolutePath(), e);
+            }
+        }
+        return targets;
+    }
+
+    // "Page.field" -> the checked targets it must be found on. A field expected only on fixtures that were never
+    // captured has none and is left to the warning.
+    private static Map<String, Set<String>> required(Set<String> checked) {
+        Map<String, Set<String>> required = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Set<String>>> page : PageLocators.expectedOn().entrySet()) {
+            for (Map.Entry<String, Set<String>> field : page.getValue().entrySet()) {
+                Map<String, By> locators = PageLocators.all().get(page.getKey());
+                if (locators == null || !locators.containsKey(field.getKey())) {
+                    throw new IllegalStateException("PageLocators.expectedOn() names " + page.getKey() + "."
+                            + field.getKey() + ", which is not a @FindBy field of a known page object.");
+                }
+                Set<String> targets = new LinkedHashSet<>(field.getValue());
+                targets.retainAll(checked);
+                if (!targets.isEmpty()) {
+                    required.put(page.getKey() + "." + field.getKey(), targets);
+                }
+            }
+        }
+        return required;
+    }
+
+    // Opens one page and evaluates the locators of every page object on it.
+    private static List<LocatorAudit.Finding> check(String target, String url, int timeoutSeconds) {
+        WebDriver driver = DriverSessions.acquire(url);
+        long previousTimeoutMillis = pageLoadTimeoutMillis(driver);
+        try {
+            driver.manage().timeouts().pageLoadTimeout(timeoutSeconds, TimeUnit.SECONDS);
+            driver.get(url);
+            // Pages that keep polling never settle; what is rendered by then is good enough to check against.
+            PageSettler.settle(driver, 250, timeoutSeconds * 1000L);
+
+            List<LocatorAudit.Finding> findings = new ArrayList<>();
+            for (Map.Entry<String, Map<String, By>> page : PageLocators.all().entrySet()) {
+                findings.addAll(LocatorAudit.audit(driver, page.getKey(), target, page.getValue(),
+                        PageLocators.listFields().get(page.getKey()), 1));
+            }
+            return findings;
+        } finally {
+            try {
+                // Back to the session's own budget, so a pooled session does not keep the preflight's short one.
+                driver.manage().timeouts().pageLoadTimeout(previousTimeoutMillis, TimeUnit.MILLISECONDS);
+            } finally {
+                DriverSessions.release(driver);
+            }
+        }
+    }
+
+    // The page load budget the session was created with. Selenium 3 cannot read the current timeouts back,
+    // but nothing else changes them, so the one the driver reported at session start is still the one in use.
+    private static long pageLoadTimeoutMillis(WebDriver driver) {
+        if (driver instanceof HasCapabilities) {
+            Object timeouts = ((HasCapabilities) driver).getCapabilities().getCapability("timeouts");
+            if (timeouts instanceof Map && ((Map<?, ?>) timeouts).get("pageLoad") instanceof Number) {
+                return ((Number) ((Map<?, ?>) timeouts).get("pageLoad")).longValue();
+            }
+        }
+        // The WebDriver default
+        return 300_000;
+    }
+
+    // Fields without a required target that matched nothing on any page checked
+    private static String notFound(List<LocatorAudit.Finding> findings, Map<String, Set<String>> required) {
+        Map<String, LocatorAudit.Finding> notFound = new LinkedHashMap<>();
+        Set<String> foundOrInvalid = new LinkedHashSet<>(required.keySet());
+
+        for (LocatorAudit.Finding finding : findings) {
+            String field = finding.getPage() + "." + finding.getField();
+            if (finding.getMatches() > 0 || finding.getFlags().contains(LocatorAudit.Flag.ERROR)) {
+                foundOrInvalid.add(field);
+            } else {
+                notFound.putIfAbsent(field, finding);
+            }
+        }
+        foundOrInvalid.forEach(notFound::remove);
+
+        StringBuilder out = new StringBuilder();
+        notFound.forEach((field, finding) -> out.append("    ").append(field).append("  ").append(finding.getBy()).append('\n'));
+        return out.toString();
+    }
+
+    private static String failures(List<LocatorAudit.Finding> findings, Map<String, Set<String>> required,
+                                   Map<String, String> unreachable) {
+        Map<String, String> invalid = new LinkedHashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (LocatorAudit.Finding finding : findings) {
+            String field = finding.getPage() + "." + finding.getField();
+            if (finding.getFlags().contains(LocatorAudit.Flag.ERROR)) {
+                invalid.putIfAbsent(field, finding.getBy() + " -> " + finding.getError());
+            } else if (finding.getMatches() == 0 && required.getOrDefault(field, Set.of()).contains(finding.getTarget())) {
+                missing.merge(field, finding.getBy() + " on " + finding.getTarget(), (a, b) -> a + ", " + finding.getTarget());
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        if (!invalid.isEmpty()) {
+            out.append("  Invalid locators:\n");
+            invalid.forEach((field, error) -> out.append("    ").append(field).append("  ").append(error).append('\n'));
+        }
+        if (!missing.isEmpty()) {
+            out.append("  Locators not found where they must be:\n");
+            missing.forEach((field, where) -> out.append("    ").append(field).append("  ").append(where).append('\n'));
+        }
+        if (!unreachable.isEmpty()) {
+            out.append("  Pages that could not be checked:\n");
+            unreachable.forEach((target, reason) -> out.append("    ").append(target).append("  ").append(reason).append('\n'));
+        }
+        return out.toString();
+    }
+}
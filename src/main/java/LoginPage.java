@@ -1,93 +1,94 @@
+import Utils.Locator;
 import com.aventstack.extentreports.Status;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.asserts.SoftAssert;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.testng.Assert.assertEquals;
 
 
 // Declaring the CheckoutPage class, which extends the BasePage class.
-// By extending BasePage, CheckoutPage inherits the WebDriver instance and the PageFactory initialization.
+// By extending BasePage, CheckoutPage inherits the WebDriver instance and the lazy element factories used by its generated bindings.
 public class LoginPage extends BasePage {
 
     private static final Logger log = LoggerFactory.getLogger(LoginPage.class);
-    // Declaring a public WebDriverWait variable named 'wait'.
-    // WebDriverWait is used for implementing explicit waits during interactions with web elements.
-    public WebDriverWait wait;
-
     public SoftAssert softAssert;
 
     // Constructor for the CheckoutPage class that takes a WebDriver object as an argument.
     // This constructor calls the parent class (BasePage) constructor to initialize the WebDriver instance
-    // and sets up the PageFactory to initialize the web elements on this page.
+    // and binds the web elements of this page through the generated binding class.
     public LoginPage(WebDriver driver) {
         // Calling the parent class (BasePage) constructor using 'super' to initialize the WebDriver.
         super(driver);
 
-        // Initializing the WebDriverWait object with a 10-second timeout.
-        // This will be used to wait for certain conditions or elements during test execution.
-        wait = new WebDriverWait(driver, 10);
+        // Assigning the @FindBy fields below through the binding generated at compile time.
+        LoginPage_Elements.bind(this);
+
+        // Explicit waits go through waitFor(...) from BasePage, which times them and applies the default timeout.
         softAssert = new SoftAssert();
     }
 
     // Locating the search bar element using the @FindBy annotation.
     // @FindBy is a Selenium annotation that helps locate elements on the web page.
     // Here, the element is being located by its 'id' attribute with the value "input-search".
-    // Declare the WebElement as private to enforce encapsulation
-    // This ensures that 'searchBar' cannot be accessed directly from outside this class
+    // The WebElement fields are package-private rather than private, because the generated
+    // LoginPage_Elements class assigns them directly; everything outside the page still goes through its methods.
 
     @FindBy(css = ".svg-inline--fa.fa-sign-in-alt.fa-w-16 ")
-    private WebElement loginButton;
+    WebElement loginButton;
 
     public void clickLoginButton() {
-        loginButton.click();
+        navigatingClick(loginButton);
     }
 
     @FindBy(id = "user-name")
-    private WebElement username;
+    WebElement username;
 
     public void setUsername() {
         username.sendKeys("dino");
     }
 
     @FindBy(id = "password")
-    private WebElement password1;
+    WebElement password1;
 
     public void setPassword1() {
         password1.sendKeys("choochoo");
     }
 
     @FindBy(css = ".btn.btn-primary")
-    private WebElement logButton;
+    WebElement logButton;
 
     public void clickLogButton() {
-        logButton.click();
+        navigatingClick(logButton);
     }
 
     @FindBy(linkText = "dino")
-    private WebElement userLoggedIn;
+    WebElement userLoggedIn;
 
     public WebElement getUserLoggedIn() {
         return userLoggedIn;
     }
 
     @FindBy(css = ".svg-inline--fa.fa-undo.fa-w-16 ")
-    private WebElement resetButton;
+    WebElement resetButton;
 
     public void clickResetButton() {
         resetButton.click();
     }
 
     @FindBy(css = ".sort-products-select.form-control.form-control-sm")
-    private WebElement sortBar;
+    WebElement sortBar;
 
     public WebElement getSortBar() {
         return sortBar;
@@ -105,58 +106,71 @@ public class LoginPage extends BasePage {
         clickLogButton();
     }
 
-    @FindBy(css = ".card-link")
-    private List<WebElement> productElements;
+    private static final String PRODUCT_CSS = ".card-link";
+    private static final String PRICE_CSS = ".card-text";
+
+    @FindBy(css = PRODUCT_CSS)
+    List<WebElement> productElements;
 
     public List<WebElement> getProductElements() {
         return productElements;
     }
 
-    @FindBy(css = ".card-text")
-    private List<WebElement> priceElements;
+    // Names of all products on the page, read in one round trip instead of one getText() per product.
+    public List<String> getProductNames() {
+        return textsOf(Locator.cssSelector(PRODUCT_CSS));
+    }
+
+    @FindBy(css = PRICE_CSS)
+    List<WebElement> priceElements;
 
     public List<WebElement> getPriceElements() {
         return priceElements;
     }
 
+    // Price labels of all products on the page, read in one round trip instead of one getText() per product.
+    public List<String> getPriceTexts() {
+        return textsOf(Locator.cssSelector(PRICE_CSS));
+    }
+
     //login to HAIVE
     @FindBy(xpath = "//input[contains(@type, 'email')]")
-    private WebElement email;
+    WebElement email;
 
     public void setEmail() {
         email.sendKeys("beny.cazac.u@gmail.com");
     }
 
     @FindBy(xpath = "//input[contains(@type, 'password')]")
-    private WebElement password;
+    WebElement password;
 
     public void setPassword() {
         password.sendKeys("wearehaive");
     }
 
     @FindBy(linkText = "Autentificare")
-    private WebElement authentification;
+    WebElement authentification;
 
     public void clickAuthentificate() {
-        authentification.click();
+        navigatingClick(authentification);
     }
 
     @FindBy(xpath = "//button[contains(@class, 'h-11 rounded-md px-8 w-full')]")
-    private WebElement secondAuthentification;
+    WebElement secondAuthentification;
 
     public void clickSecondAuthentificate() {
-        secondAuthentification.click();
+        navigatingClick(secondAuthentification);
     }
 
     @FindBy(css = ".text-2xl.font-semibold.tracking-tight")
-    private WebElement textOnLoginPage;
+    WebElement textOnLoginPage;
 
     public WebElement onLoginPage() {
         return textOnLoginPage;
     }
 
     @FindBy(xpath = "//*[@class = 'text-lg text-muted-foreground']")
-    private WebElement dashboard;
+    WebElement dashboard;
 
     public WebElement onDashboard() {
         return dashboard;
@@ -164,35 +178,40 @@ public class LoginPage extends BasePage {
 
     //    @FindBy(xpath = "(//*[contains(@class, 'group flex items-center')])[2]")
     @FindBy(linkText = "Locații")
-    private WebElement locations;
+    WebElement locations;
 
     public void clickOnLocationsTab() {
-        locations.click();
+        navigatingClick(locations);
     }
 
     @FindBy(linkText = "Creați locație")
-    private WebElement createLocation;
+    WebElement createLocation;
 
     public void clickOnCreateLocation() {
-        createLocation.click();
+        navigatingClick(createLocation);
     }
 
     @FindBy(css = ".mt-6.text-xl.font-semibold")
-    private WebElement waitText1;
+    WebElement waitText1;
 
     public WebElement waitTextBeforeCreatingLocations() {
         return waitText1;
     }
 
     @FindBy(css = ".text-lg.text-muted-foreground")
-    private WebElement waitText2;
+    WebElement waitText2;
 
     public WebElement waitTextAfterCreatingLocations() {
         return waitText2;
     }
 
-    @FindBy(xpath = "//input[@name = 'name']")
-    private WebElement locationName;
+    private static final String LOCATION_NAME_XPATH = "//input[@name = 'name']";
+    private static final String LOCATION_ADDRESS_XPATH = "//input[@name = 'address']";
+    private static final String LOCATION_CITY_XPATH = "//input[@name = 'city']";
+    private static final String LOCATION_POSTCODE_XPATH = "//input[@name = 'postcode']";
+
+    @FindBy(xpath = LOCATION_NAME_XPATH)
+    WebElement locationName;
 
     public WebElement getName() {
         return locationName;
@@ -202,32 +221,42 @@ public class LoginPage extends BasePage {
         locationName.sendKeys("Best of Town");
     }
 
-    @FindBy(xpath = "//input[@name = 'address']")
-    private WebElement locationAddress;
+    @FindBy(xpath = LOCATION_ADDRESS_XPATH)
+    WebElement locationAddress;
 
     public void insertLocationAddress() {
         locationAddress.sendKeys("Bulevardul George Enescu, nr. 48");
     }
 
-    @FindBy(xpath = "//input[@name = 'city']")
-    private WebElement locationCity;
+    @FindBy(xpath = LOCATION_CITY_XPATH)
+    WebElement locationCity;
 
     public void insertLocationCity() {
         locationCity.sendKeys("Suceava");
     }
 
-    @FindBy(xpath = "//input[@name = 'postcode']")
-    private WebElement locationPostcode;
+    @FindBy(xpath = LOCATION_POSTCODE_XPATH)
+    WebElement locationPostcode;
 
     public void insertLocationPostcode() {
         locationPostcode.sendKeys("450897");
     }
 
+    // Fills name, address, city and postcode of a new location in one batched operation.
+    public void fillLocationForm() {
+        Map<By, String> fields = new LinkedHashMap<>();
+        fields.put(Locator.xpath(LOCATION_NAME_XPATH), "Best of Town");
+        fields.put(Locator.xpath(LOCATION_ADDRESS_XPATH), "Bulevardul George Enescu, nr. 48");
+        fields.put(Locator.xpath(LOCATION_CITY_XPATH), "Suceava");
+        fields.put(Locator.xpath(LOCATION_POSTCODE_XPATH), "450897");
+        fillForm(fields);
+    }
+
     @FindBy(xpath = "//button[text()='Creați locația']")
-    private WebElement createLocationButton;
+    WebElement createLocationButton;
 
     public void clickOnButtonCreateLocation() {
-        createLocationButton.click();
+        navigatingClick(createLocationButton);
     }
 
     public WebElement getLocationButton() {
@@ -235,7 +264,7 @@ public class LoginPage extends BasePage {
     }
 
     @FindBy(id = "date")
-    private WebElement datePicker;
+    WebElement datePicker;
 
     public void clickDate() {
         datePicker.click();
@@ -246,59 +275,77 @@ public class LoginPage extends BasePage {
     }
 
     public void clickWhenReady(WebElement locator) {
-        WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
+        WebElement element = waitFor(ExpectedConditions.elementToBeClickable(locator));
         element.click();
     }
 
     public void sendKeysWhenReady(WebElement locator, String text) {
-        WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
+        WebElement element = waitFor(ExpectedConditions.elementToBeClickable(locator));
         element.sendKeys(text);
     }
 
     @FindBy(xpath = "(//*[@name= 'day' and text() = '1'])[1]")
-    private WebElement day1;
+    WebElement day1;
 
     public void clickDay1() {
         day1.click();
     }
 
     @FindBy(xpath = "(//*[@name= 'day' and text() = '3'])[1]")
-    private WebElement day3;
+    WebElement day3;
 
     public void clickDay3() {
         day3.click();
     }
 
     @FindBy(name = "previous-month")
-    private WebElement previousMonth;
+    WebElement previousMonth;
 
     public void clickPreviousMonth() {
         previousMonth.click();
     }
 
     public void loginToHaive() {
-        clickAuthentificate();
-        wait.until(ExpectedConditions.visibilityOf(onLoginPage()));
-        assertEquals(onLoginPage().getText(), "Autentificare");
-        setEmail();
-        setPassword();
-        clickSecondAuthentificate();
-        wait.until(ExpectedConditions.visibilityOf(onDashboard()));
-        assertEquals(onDashboard().getText(), "Vedeți cum merge afacerea dvs");
+        step("loginToHaive", () -> {
+            clickAuthentificate();
+            waitFor(ExpectedConditions.visibilityOf(onLoginPage()));
+            assertEquals(onLoginPage().getText(), "Autentificare");
+            setEmail();
+            setPassword();
+            clickSecondAuthentificate();
+            waitFor(ExpectedConditions.visibilityOf(onDashboard()));
+            assertEquals(onDashboard().getText(), "Vedeți cum merge afacerea dvs");
+        });
+    }
+
+    // Lands on the HAIVE dashboard, reusing a cached login when there is one instead of filling the form again.
+    public void ensureLoggedInToHaive() {
+        step("ensureLoggedInToHaive", () -> LoginStateCache.login(driver, this));
+    }
+
+    public boolean isOnDashboard() {
+        try {
+            waitFor(ExpectedConditions.visibilityOf(onDashboard()), 5);
+            return onDashboard().getText().equals("Vedeți cum merge afacerea dvs");
+        } catch (TimeoutException e) {
+            return false;
+        }
     }
 
     @FindBy(css = ".aspect-square.size-full")
-    private WebElement logoutIcon;
+    WebElement logoutIcon;
 
     public void clickLogoutIcon() {
         logoutIcon.click();
     }
 
     @FindBy(xpath = "//div[text()='Ieşi din cont']")
-    private WebElement logoutButton;
+    WebElement logoutButton;
 
     public void clickLogoutButton() {
-        logoutButton.click();
+        navigatingClick(logoutButton);
+        // Logging out ends the server session a cached login may share, so later tests log in again.
+        LoginStateCache.invalidate();
     }
 
     public WebElement getLogoutButton() {
@@ -306,14 +353,14 @@ public class LoginPage extends BasePage {
     }
 
     @FindBy(xpath = "//h1[text()='Autentificare']")
-    private WebElement logoutHeading;
+    WebElement logoutHeading;
 
     public WebElement getLogoutHeading() {
         return logoutHeading;
     }
 
     @FindBy(css = ".text-xl.font-semibold.leading-none.tracking-tight")
-    private WebElement getLocationName;
+    WebElement getLocationName;
 
     public WebElement getNameOfLocation() {
         return getLocationName;
@@ -322,35 +369,35 @@ public class LoginPage extends BasePage {
     //Add menu in Haive
 
     @FindBy(linkText = "Meniu")
-    private WebElement menu;
+    WebElement menu;
 
     public void clickMenuTab() {
-        menu.click();
+        navigatingClick(menu);
     }
 
     @FindBy(xpath = "//button[text()='Creați meniu']")
-    private WebElement createMenuFirstButton;
+    WebElement createMenuFirstButton;
 
     public void clickCreateMenuFirstButton() {
         createMenuFirstButton.click();
     }
 
     @FindBy(id = "name")
-    private WebElement menuName;
+    WebElement menuName;
 
     public void insertMenuName() {
         menuName.sendKeys("Burgers");
     }
 
     @FindBy(xpath = "//button[@type='submit']")
-    private WebElement createMenuSecondButton;
+    WebElement createMenuSecondButton;
 
     public void clickCreateMenuSecondButton() {
         createMenuSecondButton.click();
     }
 
     @FindBy(xpath = "//h1[text()='Burgers']")
-    private WebElement checkMenu;
+    WebElement checkMenu;
 
     public WebElement getCheckMenu() {
         return checkMenu;
@@ -359,56 +406,56 @@ public class LoginPage extends BasePage {
     //Adding category to menu in Haive
 
     @FindBy(xpath = "//*[text()='Burgers']")
-    private WebElement burgersButton;
+    WebElement burgersButton;
 
     public void clickBurgersButton() {
-        burgersButton.click();
+        navigatingClick(burgersButton);
     }
 
     @FindBy(xpath = "//*[text()='Categorie nouă']")
-    private WebElement newCategory;
+    WebElement newCategory;
 
     public void clickNewCategory() {
         newCategory.click();
     }
 
     @FindBy(xpath = "//input[@placeholder='ex: Antreuri']")
-    private WebElement categoryName;
+    WebElement categoryName;
 
     public void insertCategoryName() {
         categoryName.sendKeys("Burgeri mexicani");
     }
 
     @FindBy(xpath = "//button[text()='Creați']")
-    private WebElement createCategoryButton;
+    WebElement createCategoryButton;
 
     public void clickCreateCategoryButton() {
         createCategoryButton.click();
     }
 
     @FindBy(xpath = "//h2[@class='text-lg font-semibold']")
-    private WebElement checkCategory;
+    WebElement checkCategory;
 
     public WebElement getCategory() {
         return checkCategory;
     }
 
     @FindBy(xpath = "//*[@class='lucide lucide-trash size-4 text-destructive']")
-    private WebElement deleteCategoryButton;
+    WebElement deleteCategoryButton;
 
     public void clickDeleteCategoryButton() {
         deleteCategoryButton.click();
     }
 
     @FindBy(xpath = "//button[@class = 'minimal-toolbar_iconButton__hBqdp']")
-    private WebElement transparentButton;
+    WebElement transparentButton;
 
     public void clickTransparentButton() {
         transparentButton.click();
     }
     
     @FindBy(css = ".card-link")
-    private WebElement miscProduct;
+    WebElement miscProduct;
 
     public WebElement getMiscProduct() {
         return miscProduct;
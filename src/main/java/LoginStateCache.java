@@ -0,0 +1,151 @@
+import Utils.CachingElementLocatorFactory;
+import Utils.RunConfig;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Remembers an authenticated HAIVE session so tests can skip the login form.
+// The first test logs in through the UI and the resulting cookies and localStorage/sessionStorage are captured;
+// later tests inject that state into their own browser and go straight to the dashboard.
+// LOGIN_CACHE=run (default) shares one login across the run, worker keeps one per thread, off disables it.
+// LOGIN_CACHE_TTL_MINUTES (default 30) bounds how long a captured login is trusted.
+public class LoginStateCache {
+
+    private static final String scope = RunConfig.get("LOGIN_CACHE", "run");
+    private static final long ttlMillis = RunConfig.getInt("LOGIN_CACHE_TTL_MINUTES", 30) * 60_000L;
+
+    private static volatile LoginState shared;
+    private static final ThreadLocal<LoginState> perWorker = new ThreadLocal<>();
+
+    public static void login(WebDriver driver, LoginPage loginPage) {
+
+        if ("off".equalsIgnoreCase(scope)) {
+            loginPage.loginToHaive();
+            return;
+        }
+
+        LoginState state = cached();
+        if (state != null && !state.isExpired()) {
+            if (state.restoreInto(driver) && loginPage.isOnDashboard()) {
+                return;
+            }
+            // Rejected by the server: the browser still holds the stale cookies and storage and shows wherever the
+            // restore ended (the landing page or an auth redirect), while the form login starts on the start page.
+            invalidate();
+            LoginState.clear(driver);
+        }
+
+        // Nothing cached, expired, or rejected by the server: log in for real and remember the new state.
+        loginPage.loginToHaive();
+        store(LoginState.capture(driver));
+    }
+
+    // Forgets the cached login, e.g. after a logout ended the server session it belongs to.
+    public static void invalidate() {
+        shared = null;
+        perWorker.remove();
+    }
+
+    private static LoginState cached() {
+        return "worker".equalsIgnoreCase(scope) ? perWorker.get() : shared;
+    }
+
+    private static void store(LoginState state) {
+        if ("worker".equalsIgnoreCase(scope)) {
+            perWorker.set(state);
+        } else {
+            shared = state;
+        }
+    }
+
+    private static class LoginState {
+
+        private static final String DUMP_STORAGE =
+                "var dump = function (storage) {" +
+                "  var copy = {};" +
+                "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); copy[key] = storage.getItem(key); }" +
+                "  return copy;" +
+                "};" +
+                "return { local: dump(window.localStorage), session: dump(window.sessionStorage) };";
+
+        private static final String RESTORE_STORAGE =
+                "var state = arguments[0];" +
+                "Object.keys(state.local).forEach(function (key) { window.localStorage.setItem(key, state.local[key]); });" +
+                "Object.keys(state.session).forEach(function (key) { window.sessionStorage.setItem(key, state.session[key]); });";
+
+        private final Set<Cookie> cookies;
+        private final Map<String, Object> storage;
+        private final String landingUrl;
+        private final long capturedAt;
+
+        private LoginState(Set<Cookie> cookies, Map<String, Object> storage, String landingUrl) {
+            this.cookies = cookies;
+            this.storage = storage;
+            this.landingUrl = landingUrl;
+            this.capturedAt = System.currentTimeMillis();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static LoginState capture(WebDriver driver) {
+            Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(DUMP_STORAGE);
+            return new LoginState(driver.manage().getCookies(), new HashMap<>(storage), driver.getCurrentUrl());
+        }
+
+        private boolean isExpired() {
+            if (System.currentTimeMillis() - capturedAt > ttlMillis) {
+                return true;
+            }
+            Date now = new Date();
+            for (Cookie cookie : cookies) {
+                if (cookie.getExpiry() != null && cookie.getExpiry().before(now)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Drops the cookies and storage of the HAIVE origin and goes back to the HAIVE start page.
+        private static void clear(WebDriver driver) {
+            try {
+                driver.manage().deleteAllCookies();
+                ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            } catch (WebDriverException e) {
+                // An error page has no storage to clear; the new login overwrites what is left.
+            }
+            driver.get(StartUrl.HAIVE);
+            CachingElementLocatorFactory.invalidate(driver);
+        }
+
+        // Cookies and storage can only be written for the origin the browser is on, so go there first.
+        private boolean restoreInto(WebDriver driver) {
+            try {
+                String origin = origin(landingUrl);
+                if (!driver.getCurrentUrl().startsWith(origin)) {
+                    driver.get(origin);
+                }
+                for (Cookie cookie : cookies) {
+                    driver.manage().addCookie(cookie);
+                }
+                ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE, storage);
+                driver.get(landingUrl);
+                CachingElementLocatorFactory.invalidate(driver);
+                return true;
+            } catch (WebDriverException e) {
+                System.out.println("Could not restore cached HAIVE login, logging in again: " + e.getMessage());
+                return false;
+            }
+        }
+
+        private static String origin(String url) {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getAuthority() + "/";
+        }
+    }
+}
@@ -0,0 +1,69 @@
+import org.openqa.selenium.By;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The @FindBy locators of every page object, as generated into the <Page>_Elements classes,
+// the sites each page lives on, and where each field must be found. Tools that check locators without running tests
+// start from here; a new page object has to be added to every method.
+public class PageLocators {
+
+    // page name -> field name -> By, in declaration order
+    public static Map<String, Map<String, By>> all() {
+        Map<String, Map<String, By>> pages = new LinkedHashMap<>();
+        pages.put("LoginPage", LoginPage_Elements.LOCATORS);
+        pages.put("CheckoutPage", CheckoutPage_Elements.LOCATORS);
+        return pages;
+    }
+
+    // page name -> names of its List<WebElement> fields, which may legitimately match many elements
+    public static Map<String, Set<String>> listFields() {
+        Map<String, Set<String>> pages = new LinkedHashMap<>();
+        pages.put("LoginPage", LoginPage_Elements.LIST_FIELDS);
+        pages.put("CheckoutPage", CheckoutPage_Elements.LIST_FIELDS);
+        return pages;
+    }
+
+    // page name -> the start URLs its fields are used on
+    public static Map<String, List<String>> defaultTargets() {
+        Map<String, List<String>> targets = new LinkedHashMap<>();
+        targets.put("LoginPage", List.of(StartUrl.HAIVE, StartUrl.FASTTRACKIT));
+        targets.put("CheckoutPage", List.of(StartUrl.FASTTRACKIT, StartUrl.EMAG));
+        return targets;
+    }
+
+    // page name -> field name -> where the field must be found: a start URL, or the name of a fixture
+    // (<TestClass>.<testMethod>, the page that test ends on, see LocatorPreflight). Fields not listed only appear
+    // after interactions no start page or fixture shows.
+    public static Map<String, Map<String, Set<String>>> expectedOn() {
+        Map<String, Map<String, Set<String>>> pages = new LinkedHashMap<>();
+        expect(pages, "LoginPage", StartUrl.FASTTRACKIT, "loginButton", "resetButton", "sortBar", "productElements",
+                "priceElements", "miscProduct");
+        expect(pages, "LoginPage", StartUrl.HAIVE, "authentification");
+        expect(pages, "LoginPage", "LoginTest.loginTest", "userLoggedIn");
+        expect(pages, "LoginPage", "LoginTest.loginToHaive", "dashboard", "locations", "menu", "datePicker", "logoutIcon");
+        expect(pages, "LoginPage", "LoginTest.logoutFromHaive", "logoutHeading", "textOnLoginPage", "email", "password",
+                "secondAuthentification");
+        expect(pages, "LoginPage", "LoginTest.addLocation", "getLocationName");
+        expect(pages, "LoginPage", "LoginTest.addingMenu", "checkMenu");
+
+        expect(pages, "CheckoutPage", StartUrl.FASTTRACKIT, "searchBar", "searchButton", "awesomeChipsProduct",
+                "shoppingCartIcon");
+        expect(pages, "CheckoutPage", StartUrl.EMAG, "searchBox", "mainSearchButton", "menu", "wishlist");
+        expect(pages, "CheckoutPage", "CheckoutTest.checkoutTest", "successMessage");
+        expect(pages, "CheckoutPage", "CheckoutTest.compareTwoSmartphones", "heading");
+        expect(pages, "CheckoutPage", "CheckoutTest.applyFilters", "filterHeading");
+        expect(pages, "CheckoutPage", "CheckoutTest.removeItemFromCart", "emptyCartText");
+        return pages;
+    }
+
+    private static void expect(Map<String, Map<String, Set<String>>> pages, String page, String where, String... fields) {
+        for (String field : fields) {
+            pages.computeIfAbsent(page, key -> new LinkedHashMap<>())
+                    .computeIfAbsent(field, key -> new LinkedHashSet<>()).add(where);
+        }
+    }
+}
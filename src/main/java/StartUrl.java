@@ -0,0 +1,18 @@
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Declares the page a test starts on.
+// Hooks opens this URL before the test runs; an annotation on the method wins over one on the class,
+// and tests without any annotation start on HAIVE.
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface StartUrl {
+
+    String HAIVE = "https://demo.wearehaive.com/ro/solutions/restaurants";
+    String FASTTRACKIT = "https://fasttrackit-test.netlify.app/#/";
+    String EMAG = "https://www.emag.ro/";
+
+    String value();
+}
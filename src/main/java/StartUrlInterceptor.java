@@ -0,0 +1,38 @@
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs tests that start on the same site next to each other.
+// Together with the session pool this keeps a reused browser on one origin, so its cache and connections
+// stay warm and the reset only has to clear that origin's cookies and storage.
+// Within a group the original order is kept; groups appear in the order their first test did.
+public class StartUrlInterceptor implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Map<String, List<IMethodInstance>> groups = new LinkedHashMap<>();
+
+        for (IMethodInstance method : methods) {
+            Method testMethod = method.getMethod().getConstructorOrMethod().getMethod();
+            groups.computeIfAbsent(startUrlOf(testMethod), url -> new ArrayList<>()).add(method);
+        }
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        groups.values().forEach(ordered::addAll);
+        return ordered;
+    }
+
+    public static String startUrlOf(Method testMethod) {
+        StartUrl startUrl = testMethod.getAnnotation(StartUrl.class);
+        if (startUrl == null) {
+            startUrl = testMethod.getDeclaringClass().getAnnotation(StartUrl.class);
+        }
+        return startUrl != null ? startUrl.value() : StartUrl.HAIVE;
+    }
+}
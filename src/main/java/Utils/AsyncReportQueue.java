@@ -0,0 +1,111 @@
+package Utils;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// Hands report events from the test threads to one writer thread, so logging never waits for the report.
+// Producers only append to a lock-free queue; the writer applies the events to the sink one by one, which keeps
+// the order in which every thread logged and means the sink never has to be thread-safe.
+// The queue holds at most `capacity` events: a test thread only waits when the writer is that far behind.
+public class AsyncReportQueue {
+
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final Queue<ReportEvent> events = new ConcurrentLinkedQueue<>();
+    private final Semaphore capacity;
+    private final Consumer<ReportEvent> sink;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public AsyncReportQueue(Consumer<ReportEvent> sink, int capacity) {
+        this.sink = sink;
+        this.capacity = new Semaphore(capacity);
+        this.writer = new Thread(this::drain, "report-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void submit(ReportEvent event) {
+        if (closed) {
+            throw new IllegalStateException("The report queue is closed, cannot log " + event);
+        }
+        capacity.acquireUninterruptibly();
+        events.add(event);
+        submitted.incrementAndGet();
+        LockSupport.unpark(writer);
+    }
+
+    // Queues a FLUSH event and waits until the writer has applied it and everything queued before it.
+    public void flush() {
+        submit(ReportEvent.flush());
+        awaitApplied(submitted.get());
+    }
+
+    // Flushes and stops the writer. Events submitted afterwards are rejected.
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+    }
+
+    public int pending() {
+        return (int) (submitted.get() - applied.get());
+    }
+
+    private void awaitApplied(long target) {
+        while (applied.get() < target) {
+            if (!writer.isAlive()) {
+                throw new IllegalStateException("The report writer thread has stopped");
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void drain() {
+        boolean dirty = false;
+        while (!closed || !events.isEmpty()) {
+            ReportEvent event = events.poll();
+            if (event == null) {
+                // Caught up: a sink writing to disk gets flushed now, while nobody is waiting on it.
+                if (dirty) {
+                    flushSink();
+                    dirty = false;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            dirty = true;
+            try {
+                sink.accept(event);
+            } catch (RuntimeException e) {
+                // One bad event must not stop the report; everything after it is still written.
+                System.out.println("Could not apply report event " + event + ": " + e);
+            } finally {
+                capacity.release();
+                applied.incrementAndGet();
+            }
+        }
+        flushSink();
+    }
+
+    private void flushSink() {
+        if (sink instanceof Flushable) {
+            try {
+                ((Flushable) sink).flush();
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Could not flush the report: " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package Utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Reads values from every element matching a locator in a single executeScript call,
+// instead of one findElement/getText round trip per element.
+// A field is one of: "text" (rendered text, like getText()), "attr:<name>", "prop:<name>" (DOM property)
+// or "style:<name>" (computed CSS value). The locator has to be a Utils.Locator.
+public class BulkExtractor {
+
+    private static final String SCRIPT =
+            "var strategy = arguments[0], query = arguments[1], fields = arguments[2];" +
+            "var elements = [];" +
+            "if (strategy === 'xpath') {" +
+            "  var found = document.evaluate(query, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "  for (var i = 0; i < found.snapshotLength; i++) { elements.push(found.snapshotItem(i)); }" +
+            "} else {" +
+            "  elements = Array.prototype.slice.call(document.querySelectorAll(query));" +
+            "}" +
+            "return elements.map(function (element) {" +
+            "  var row = {};" +
+            "  fields.forEach(function (field) {" +
+            "    var value;" +
+            "    if (field === 'text') { value = element.innerText; }" +
+            "    else if (field.indexOf('attr:') === 0) { value = element.getAttribute(field.substring(5)); }" +
+            "    else if (field.indexOf('prop:') === 0) { value = element[field.substring(5)]; }" +
+            "    else if (field.indexOf('style:') === 0) { value = window.getComputedStyle(element).getPropertyValue(field.substring(6)); }" +
+            "    row[field] = value === null || value === undefined ? null : String(value).trim();" +
+            "  });" +
+            "  return row;" +
+            "});";
+
+    public static List<Map<String, String>> extract(WebDriver driver, By by, String... fields) {
+        Locator locator = Locator.of(by);
+        Object result = ((JavascriptExecutor) driver).executeScript(SCRIPT, locator.strategy(), locator.query(), List.of(fields));
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (Object row : (List<?>) result) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                Object value = ((Map<?, ?>) row).get(field);
+                values.put(field, value == null ? null : value.toString());
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    public static <T> List<T> extract(WebDriver driver, By by, Function<Map<String, String>, T> mapper, String... fields) {
+        List<T> mapped = new ArrayList<>();
+        for (Map<String, String> row : extract(driver, by, fields)) {
+            mapped.add(mapper.apply(row));
+        }
+        return mapped;
+    }
+
+    public static List<String> column(WebDriver driver, By by, String field) {
+        return extract(driver, by, row -> row.get(field), field);
+    }
+}
@@ -0,0 +1,56 @@
+package Utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+// Locates one page-object field and remembers the element it found.
+// The handle is reused until the page generation changes (see CachingElementLocatorFactory.invalidate(driver))
+// or until using it throws StaleElementReferenceException, in which case LazyElement drops it
+// and locates again. Lists are never cached: their size changes without their elements going stale.
+public class CachingElementLocator implements ElementLocator {
+
+    private final SearchContext searchContext;
+    private final By by;
+    private final CachingElementLocatorFactory.Generation generation;
+
+    private WebElement cachedElement;
+    private int cachedGeneration = -1;
+
+    public CachingElementLocator(SearchContext searchContext, By by, CachingElementLocatorFactory.Generation generation) {
+        this.searchContext = searchContext;
+        this.by = by;
+        this.generation = generation;
+    }
+
+    @Override
+    public synchronized WebElement findElement() {
+        int current = generation.current();
+        if (cachedElement == null || cachedGeneration != current) {
+            cachedElement = searchContext.findElement(by);
+            cachedGeneration = current;
+        }
+        return cachedElement;
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        return searchContext.findElements(by);
+    }
+
+    public synchronized void invalidate() {
+        cachedElement = null;
+    }
+
+    public By getBy() {
+        return by;
+    }
+
+    @Override
+    public String toString() {
+        return "CachingElementLocator '" + by + "'";
+    }
+}
@@ -0,0 +1,53 @@
+package Utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Builds CachingElementLocators for one page object.
+// All locators of all page objects on one browser share that browser's generation counter: bumping it with
+// invalidate(driver) after a navigation makes every field locate its element again on next use.
+// It is bumped when the pool resets a session, when a cached login is restored, and by the page methods that
+// navigate (BasePage.navigatingClick); any other stale handle is located again once by LazyElement.
+public class CachingElementLocatorFactory {
+
+    private static final Map<SearchContext, Generation> generations = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final SearchContext searchContext;
+    private final Generation generation;
+
+    public CachingElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+        this.generation = generations.computeIfAbsent(searchContext, context -> new Generation());
+    }
+
+    // Forgets every element cached for this browser, by any page object.
+    public static void invalidate(SearchContext searchContext) {
+        Generation generation = generations.get(searchContext);
+        if (generation != null) {
+            generation.next();
+        }
+    }
+
+    // Locator for one field of the generated page bindings, sharing this browser's generation.
+    public CachingElementLocator createLocator(By by) {
+        return new CachingElementLocator(searchContext, by, generation);
+    }
+
+    public static class Generation {
+
+        private final AtomicInteger value = new AtomicInteger();
+
+        int current() {
+            return value.get();
+        }
+
+        void next() {
+            value.incrementAndGet();
+        }
+    }
+}
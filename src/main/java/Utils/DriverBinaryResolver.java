@@ -0,0 +1,160 @@
+package Utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Finds the chromedriver binary once per JVM.
+// Resolved paths are remembered on disk per Chrome major version, so later runs (and air-gapped agents that
+// were seeded once) start without asking WebDriverManager to detect versions or reach the network.
+// CHROMEDRIVER_PATH skips all of this, DRIVER_CACHE_DIR moves the cache (default ~/.cache/chromedriver-cache).
+public class DriverBinaryResolver {
+
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.\\d+\\.\\d+\\.\\d+");
+
+    private static volatile boolean resolved;
+
+    public static void resolveChromeDriver() {
+        if (resolved) {
+            return;
+        }
+        synchronized (DriverBinaryResolver.class) {
+            if (!resolved) {
+                System.setProperty(DRIVER_PROPERTY, findChromeDriver());
+                resolved = true;
+            }
+        }
+    }
+
+    private static String findChromeDriver() {
+
+        String explicitPath = RunConfig.get("CHROMEDRIVER_PATH", null);
+        if (explicitPath != null) {
+            return explicitPath;
+        }
+
+        String presetPath = System.getProperty(DRIVER_PROPERTY);
+        if (presetPath != null && Files.isExecutable(Paths.get(presetPath))) {
+            return presetPath;
+        }
+
+        Path cacheDir = Paths.get(RunConfig.get("DRIVER_CACHE_DIR",
+                Paths.get(System.getProperty("user.home"), ".cache", "chromedriver-cache").toString()));
+        Path indexFile = cacheDir.resolve("drivers.properties");
+        String chromeVersion = detectChromeMajorVersion();
+
+        Properties index = loadIndex(indexFile);
+        String cachedPath = index.getProperty(chromeVersion);
+        if (cachedPath != null && Files.isExecutable(Paths.get(cachedPath))) {
+            return cachedPath;
+        }
+
+        // Cache miss: let WebDriverManager resolve (and download if needed) into our cache directory.
+        WebDriverManager manager = WebDriverManager.chromedriver().cachePath(cacheDir.toString());
+        if (!"unknown".equals(chromeVersion)) {
+            manager.browserVersion(chromeVersion);
+        }
+
+        try {
+            manager.setup();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Could not resolve chromedriver for Chrome " + chromeVersion
+                    + " and nothing is cached in " + cacheDir + ". Run once with network access or set CHROMEDRIVER_PATH.", e);
+        }
+
+        String driverPath = manager.getDownloadedDriverPath();
+        index.setProperty(chromeVersion, driverPath);
+        storeIndex(indexFile, index);
+
+        return driverPath;
+    }
+
+    // Asks the locally installed Chrome for its version, without any network access.
+    private static String detectChromeMajorVersion() {
+
+        String binary = RunConfig.get("CHROME_BINARY", null);
+        List<List<String>> commands = binary != null
+                ? List.of(List.of(binary, "--version"))
+                : List.of(
+                        List.of("google-chrome", "--version"),
+                        List.of("google-chrome-stable", "--version"),
+                        List.of("chromium", "--version"),
+                        List.of("chromium-browser", "--version"),
+                        List.of("/Applications/Google Chrome.app/Contents/MacOS/Google Chrome", "--version"),
+                        List.of("reg", "query", "HKEY_CURRENT_USER\\Software\\Google\\Chrome\\BLBeacon", "/v", "version"));
+
+        for (List<String> command : commands) {
+            Matcher matcher = VERSION.matcher(run(command));
+            if (matcher.find()) {
+                return matcher.group(1);
+            }
+        }
+
+        return "unknown";
+    }
+
+    // Runs a version command for at most 10 seconds. Its output goes to a file rather than a pipe, so a browser that
+    // hangs (or leaves a child holding the pipe open) cannot block the read past the timeout.
+    private static String run(List<String> command) {
+        Path output = null;
+        try {
+            output = Files.createTempFile("browser-version", ".txt");
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(output.toFile()).start();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+                return "";
+            }
+            return new String(Files.readAllBytes(output), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        } finally {
+            if (output != null) {
+                try {
+                    Files.deleteIfExists(output);
+                } catch (IOException ignored) {
+                    // A leftover file in the temp directory is harmless.
+                }
+            }
+        }
+    }
+
+    private static Properties loadIndex(Path indexFile) {
+        Properties index = new Properties();
+        if (Files.exists(indexFile)) {
+            try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+                index.load(reader);
+            } catch (IOException e) {
+                System.out.println("Ignoring unreadable driver cache index " + indexFile + ": " + e.getMessage());
+            }
+        }
+        return index;
+    }
+
+    private static void storeIndex(Path indexFile, Properties index) {
+        try {
+            Files.createDirectories(indexFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8)) {
+                index.store(writer, "chromedriver binaries by Chrome major version");
+            }
+        } catch (IOException e) {
+            System.out.println("Could not update driver cache index " + indexFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package Utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.nio.file.Path;
+
+// Knows how to launch and configure a brand-new Chrome session.
+// Everything that decides what a session looks like lives here, so the pool and Hooks only deal with lifecycle.
+public class DriverFactory {
+
+    public static WebDriver createDriver() {
+
+        // Pointing Selenium at the ChromeDriver binary; resolved once per JVM and cached on disk.
+        DriverBinaryResolver.resolveChromeDriver();
+
+        ChromeOptions options = new ChromeOptions();
+
+        options.setExperimentalOption("useAutomationExtension", false);
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-search-engine-choice-screen");
+
+        // Headless mode, window size, page load strategy and the lean Chrome flags come from the launch profile.
+        LaunchProfile.current().applyTo(options);
+
+        Path profile = null;
+        if (ProfileTemplate.isEnabled()) {
+            profile = ProfileTemplate.cloneForSession();
+            options.addArguments("--user-data-dir=" + profile.toAbsolutePath());
+        }
+
+        return launch(options, profile);
+    }
+
+    // Starts Chrome with the given options under a ManagedChromeDriver, so the SessionReaper knows it from the start.
+    // profileClone, if not null, is deleted when the session quits or fails to start.
+    static ManagedChromeDriver launch(ChromeOptions options, Path profileClone) {
+        // Owning the chromedriver service lets the SessionReaper find and kill the process if a session hangs.
+        ChromeDriverService service = ChromeDriverService.createDefaultService();
+        try {
+            ManagedChromeDriver driver = new ManagedChromeDriver(service, options, profileClone);
+            try {
+                // From the first page on, PageSettler sees every request a page starts.
+                PageSettler.install(driver);
+            } catch (WebDriverException e) {
+                System.out.println("Could not register the page settle probe, it is installed on first use: " + e.getMessage());
+            }
+            return driver;
+        } catch (RuntimeException e) {
+            if (service.isRunning()) {
+                service.stop();
+            }
+            if (profileClone != null) {
+                ProfileTemplate.delete(profileClone);
+            }
+            throw e;
+        }
+    }
+}
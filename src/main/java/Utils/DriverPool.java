@@ -0,0 +1,266 @@
+package Utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// A bounded pool of live browser sessions.
+// Tests lease a session, and on release the session is reset (cookies, storage, extra windows) and parked
+// for the next test instead of being quit. Cookies and storage are cleared for every origin the session visited,
+// not only the one it ended on; a session where that cannot be done is recycled if it left its start origin. Sessions that fail the health check or reach the reuse limit
+// are quit and replaced by a fresh one the next time somebody asks.
+public class DriverPool {
+
+    private final Supplier<WebDriver> factory;
+    private final int maxReuse;
+
+    // One permit per live browser (leased, parked, or launched ahead by a DriverPrewarmer sharing this
+    // semaphore), so no more than 'maxSize' browsers ever exist at the same time.
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+
+    public DriverPool(Supplier<WebDriver> factory, int maxSize, int maxReuse) {
+        this(factory, browserPermits(maxSize), maxReuse);
+    }
+
+    // A pool whose browser budget is shared with the factory, e.g. a DriverPrewarmer that launches sessions
+    // ahead of time only while permits are left and hands each one over together with its permit.
+    public DriverPool(Supplier<WebDriver> factory, Semaphore permits, int maxReuse) {
+        this.factory = factory;
+        this.maxReuse = Math.max(1, maxReuse);
+        this.permits = permits;
+    }
+
+    public static Semaphore browserPermits(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1 but was " + maxSize);
+        }
+        return new Semaphore(maxSize, true);
+    }
+
+    // Leases a session, preferring a parked one whose last test ran on the given origin. A new browser is only
+    // launched while the budget allows; otherwise this waits for another test to park its session.
+    public WebDriver lease(String origin) {
+        try {
+            PooledSession session = takeIdle(origin);
+            WebDriver warm;
+            while (true) {
+                if (session != null) {
+                    if (isHealthy(session.driver)) {
+                        return hand(session, origin);
+                    }
+                    quit(session.driver);
+                } else if ((warm = prewarmed()) != null) {
+                    return hand(new PooledSession(warm), origin);
+                } else if (permits.tryAcquire()) {
+                    return hand(new PooledSession(launch()), origin);
+                }
+                session = idle.pollFirst(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free browser session.", e);
+        }
+    }
+
+    public void release(WebDriver driver) {
+        PooledSession session = leased.remove(driver);
+
+        if (session == null) {
+            // Not one of ours, nothing to park.
+            quietlyQuit(driver);
+            return;
+        }
+
+        session.origin = currentOrigin(session.driver);
+        if (session.uses >= maxReuse || !reset(session)) {
+            quit(session.driver);
+        } else {
+            idle.offerFirst(session);
+        }
+    }
+
+    public void shutdown() {
+        List<PooledSession> sessions = new ArrayList<>(leased.values());
+        idle.drainTo(sessions);
+        leased.clear();
+
+        for (PooledSession session : sessions) {
+            quit(session.driver);
+        }
+    }
+
+    public static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getAuthority();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return "";
+        }
+    }
+
+    private PooledSession takeIdle(String origin) {
+        for (PooledSession session : idle) {
+            if (session.origin.equals(origin) && idle.removeFirstOccurrence(session)) {
+                return session;
+            }
+        }
+        return idle.pollFirst();
+    }
+
+    private static String currentOrigin(WebDriver driver) {
+        try {
+            return originOf(driver.getCurrentUrl());
+        } catch (WebDriverException e) {
+            return "";
+        }
+    }
+
+    private WebDriver hand(PooledSession session, String origin) {
+        session.uses++;
+        session.startOrigin = origin;
+        leased.put(session.driver, session);
+        return session.driver;
+    }
+
+    // Brings a used session back to a blank state. Returns false when the session could not be cleaned,
+    // in which case it must not be handed to another test.
+    private boolean reset(PooledSession session) {
+        WebDriver driver = session.driver;
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            String main = handles.get(0);
+
+            // Every origin any window went through, read from its history before the window is closed.
+            Set<String> visited = new LinkedHashSet<>();
+            if (session.startOrigin.startsWith("http")) {
+                visited.add(session.startOrigin);
+            }
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                visited.addAll(visitedOrigins(driver));
+                // Closing every stray window or tab a test may have opened.
+                if (!handle.equals(main)) {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(main);
+
+            if (driver instanceof ManagedChromeDriver) {
+                ManagedChromeDriver chrome = (ManagedChromeDriver) driver;
+                // Cookies of every origin at once; storage has to be cleared origin by origin.
+                // The HTTP cache is kept on purpose: it is what makes reused sessions fast.
+                chrome.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                for (String origin : visited) {
+                    chrome.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin,
+                            "storageTypes", "cookies,local_storage,session_storage,indexeddb,websql,file_systems,service_workers,cache_storage"));
+                }
+            } else {
+                // Without DevTools only the current origin can be cleaned, so a session that went elsewhere is not reused.
+                String current = currentOrigin(driver);
+                if (current.startsWith("http")) {
+                    visited.add(current);
+                }
+                if (visited.size() > 1) {
+                    return false;
+                }
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+                driver.manage().deleteAllCookies();
+            }
+
+            driver.get("about:blank");
+            CachingElementLocatorFactory.invalidate(driver);
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // Origins of the current window's navigation history (http and https pages only).
+    private static Set<String> visitedOrigins(WebDriver driver) {
+        Set<String> origins = new LinkedHashSet<>();
+        if (driver instanceof ManagedChromeDriver) {
+            Object entries = ((ManagedChromeDriver) driver).executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+            if (entries instanceof List) {
+                for (Object entry : (List<?>) entries) {
+                    Object url = entry instanceof Map ? ((Map<?, ?>) entry).get("url") : null;
+                    if (url != null && url.toString().startsWith("http")) {
+                        origins.add(originOf(url.toString()));
+                    }
+                }
+            }
+        }
+        return origins;
+    }
+
+    // Whether the browser still answers. Also checked by DriverPrewarmer before it hands out a warm session.
+    static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return Long.valueOf(1).equals(((JavascriptExecutor) driver).executeScript("return 1;"));
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // A session the pre-warmer launched ahead, which comes with its own permit.
+    private WebDriver prewarmed() {
+        return factory instanceof DriverPrewarmer ? ((DriverPrewarmer) factory).takeWithPermit() : null;
+    }
+
+    private WebDriver launch() {
+        try {
+            return factory.get();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Quits one of the pool's browsers and gives its permit back.
+    private void quit(WebDriver driver) {
+        try {
+            quietlyQuit(driver);
+        } finally {
+            permits.release();
+            // The freed permit can go to a session launched ahead for the next lease.
+            if (factory instanceof DriverPrewarmer) {
+                ((DriverPrewarmer) factory).refill();
+            }
+        }
+    }
+
+    private static void quietlyQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            System.out.println("Could not quit browser session: " + e.getMessage());
+        }
+    }
+
+    private static class PooledSession {
+        private final WebDriver driver;
+        private int uses;
+        // Where the current test started, and where the session was when its last test ended
+        private String startOrigin = "";
+        private String origin = "";
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
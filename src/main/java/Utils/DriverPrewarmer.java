@@ -0,0 +1,168 @@
+package Utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Launches browser sessions ahead of time on background threads.
+// While the current test runs, the next 'lookahead' sessions are already being started, configured and
+// maximized, so asking for a session is usually just taking one that is ready.
+// In pool mode it shares the pool's browser permits: a session is only launched ahead while a permit is free,
+// and the permit goes with the session to the pool, so warming never pushes the pool past DRIVER_POOL_SIZE.
+public class DriverPrewarmer implements Supplier<WebDriver> {
+
+    // How long shutdown() waits for launches in flight, so their browsers can be quit instead of leaked.
+    private static final long LAUNCH_WAIT_SECONDS = 60;
+
+    private final Supplier<WebDriver> factory;
+    private final int lookahead;
+    private final Semaphore permits;
+    private final ExecutorService launcher;
+    private final ConcurrentLinkedQueue<Future<WebDriver>> warming = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    public DriverPrewarmer(Supplier<WebDriver> factory, int lookahead) {
+        this(factory, lookahead, null);
+    }
+
+    // permits: the browser budget shared with a DriverPool, or null when the number of browsers is not bounded.
+    public DriverPrewarmer(Supplier<WebDriver> factory, int lookahead, Semaphore permits) {
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("Lookahead must be at least 1 but was " + lookahead);
+        }
+        this.factory = factory;
+        this.lookahead = lookahead;
+        this.permits = permits;
+        this.launcher = Executors.newFixedThreadPool(lookahead, runnable -> {
+            Thread thread = new Thread(runnable, "driver-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        refill();
+    }
+
+    // A session for a caller that already holds a permit for it (or needs none); launched now if none is warm.
+    @Override
+    public WebDriver get() {
+        if (closed) {
+            throw new IllegalStateException("Pre-warmer has been shut down.");
+        }
+
+        WebDriver driver = nextAlive();
+        if (driver == null) {
+            return factory.get();
+        }
+        if (permits != null) {
+            // The caller's permit stands for this session now; the one taken when warming it is free again.
+            permits.release();
+            refill();
+        }
+        return driver;
+    }
+
+    // A warm (or warming) session together with the permit it was launched under, or null if none is on its way.
+    public WebDriver takeWithPermit() {
+        return closed ? null : nextAlive();
+    }
+
+    // The next warm session that is still alive, or null if none is on its way. A session can die while it waits
+    // (Chrome crashed, or was killed from outside); it is quit, its permit given back, and the next one is tried.
+    private WebDriver nextAlive() {
+        Future<WebDriver> next;
+        while ((next = warming.poll()) != null) {
+            // Start the replacement before blocking, so the next handoff is already on its way.
+            refill();
+            WebDriver driver = await(next);
+            if (DriverPool.isHealthy(driver)) {
+                return driver;
+            }
+            System.out.println("Discarding a pre-warmed browser session that died while waiting.");
+            try {
+                driver.quit();
+            } catch (WebDriverException e) {
+                // Already gone
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        }
+        refill();
+        return null;
+    }
+
+    // Starts launching sessions until 'lookahead' are on their way, as far as permits allow.
+    synchronized void refill() {
+        while (!closed && warming.size() < lookahead && (permits == null || permits.tryAcquire())) {
+            warming.add(launcher.submit(() -> {
+                try {
+                    return factory.get();
+                } catch (RuntimeException e) {
+                    if (permits != null) {
+                        permits.release();
+                    }
+                    throw e;
+                }
+            }));
+        }
+    }
+
+    public void shutdown() {
+        synchronized (this) {
+            closed = true;
+        }
+        // Launches in flight are allowed to finish, so the browsers they start can be quit below.
+        launcher.shutdown();
+        try {
+            if (!launcher.awaitTermination(LAUNCH_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("Pre-warmed browser launches did not finish in " + LAUNCH_WAIT_SECONDS
+                        + " s; the session reaper reclaims what they started.");
+                launcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            launcher.shutdownNow();
+        }
+
+        Future<WebDriver> pending;
+        while ((pending = warming.poll()) != null) {
+            // Sessions that finished launching but were never handed out still own a browser process.
+            if (pending.isDone() && !pending.isCancelled()) {
+                try {
+                    pending.get().quit();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | WebDriverException e) {
+                    System.out.println("Could not quit pre-warmed browser session: " + e.getMessage());
+                } finally {
+                    if (permits != null) {
+                        permits.release();
+                    }
+                }
+            }
+        }
+    }
+
+    private static WebDriver await(Future<WebDriver> next) {
+        try {
+            return next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a pre-warmed browser session.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Pre-warming a browser session failed.", e.getCause());
+        }
+    }
+}
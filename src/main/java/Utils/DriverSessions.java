@@ -0,0 +1,70 @@
+package Utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Single entry point Hooks uses to get and give back browser sessions.
+// DRIVER_MODE=fresh (default) launches a new Chrome per test and quits it afterwards.
+// DRIVER_MODE=pool reuses up to DRIVER_POOL_SIZE live sessions, each recycled after DRIVER_MAX_REUSE tests.
+// DRIVER_PREWARM=n (default 0) keeps n new sessions launching in the background, in either mode; in pool mode
+// they count against DRIVER_POOL_SIZE.
+public class DriverSessions {
+
+    private static final boolean pooled = "pool".equalsIgnoreCase(RunConfig.get("DRIVER_MODE", "fresh"));
+    private static final int prewarm = RunConfig.getInt("DRIVER_PREWARM", 0);
+
+    private static DriverPool pool;
+    private static DriverPrewarmer prewarmer;
+
+    public static WebDriver acquire(String startUrl) {
+        if (pooled) {
+            return pool().lease(DriverPool.originOf(startUrl));
+        }
+        return launcher().get();
+    }
+
+    public static void release(WebDriver driver) {
+        if (pooled) {
+            pool().release(driver);
+        } else {
+            driver.quit();
+        }
+    }
+
+    public static synchronized void shutdown() {
+        // The pre-warmer goes first, so its launches in flight are quit too; the pool then quits the rest.
+        if (prewarmer != null) {
+            prewarmer.shutdown();
+            prewarmer = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    // Where new sessions come from: launched on demand, or taken from the pre-warmer when it is enabled.
+    private static synchronized Supplier<WebDriver> launcher() {
+        if (prewarm < 1) {
+            return DriverFactory::createDriver;
+        }
+        if (prewarmer == null) {
+            prewarmer = new DriverPrewarmer(DriverFactory::createDriver, prewarm);
+        }
+        return prewarmer;
+    }
+
+    private static synchronized DriverPool pool() {
+        if (pool == null) {
+            // Sessions launched ahead count against the pool size like any other live browser.
+            Semaphore permits = DriverPool.browserPermits(RunConfig.getInt("DRIVER_POOL_SIZE", 4));
+            if (prewarm > 0 && prewarmer == null) {
+                prewarmer = new DriverPrewarmer(DriverFactory::createDriver, prewarm, permits);
+            }
+            pool = new DriverPool(launcher(), permits, RunConfig.getInt("DRIVER_MAX_REUSE", 25));
+        }
+        return pool;
+    }
+}
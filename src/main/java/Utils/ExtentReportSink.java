@@ -0,0 +1,65 @@
+package Utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.model.Log;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Applies report events to an ExtentReports model, keeping the times at which they happened.
+// Not thread-safe: ReportRenderer replays one event log at a time through it.
+public class ExtentReportSink implements Consumer<ReportEvent> {
+
+    private final ExtentReports extent;
+    // Where the HTML report is written; screenshots are linked relative to it.
+    private final Path reportDirectory;
+    private final Map<Long, ExtentTest> tests = new HashMap<>();
+
+    public ExtentReportSink(ExtentReports extent, Path reportDirectory) {
+        this.extent = extent;
+        this.reportDirectory = reportDirectory;
+    }
+
+    @Override
+    public void accept(ReportEvent event) {
+        switch (event.type()) {
+            case CREATE_TEST:
+                ExtentTest created = event.description() == null
+                        ? extent.createTest(event.name())
+                        : extent.createTest(event.name(), event.description());
+                created.getModel().setStartTime(new Date(event.timestamp()));
+                created.getModel().setEndTime(new Date(event.timestamp()));
+                tests.put(event.testId(), created);
+                break;
+            case LOG:
+                ExtentTest test = tests.get(event.testId());
+                if (test == null) {
+                    throw new IllegalStateException("Log event for unknown test " + event.testId());
+                }
+                if (event.media() == null) {
+                    test.log(event.status(), event.message());
+                } else {
+                    test.log(event.status(), event.message(), MediaEntityBuilder
+                            .createScreenCaptureFromPath(ScreenshotStore.linkFrom(reportDirectory, event.media())).build());
+                }
+                List<Log> logs = test.getModel().getLogs();
+                logs.get(logs.size() - 1).setTimestamp(new Date(event.timestamp()));
+                test.getModel().setEndTime(new Date(event.timestamp()));
+                break;
+            case SYSTEM_INFO:
+                extent.setSystemInfo(event.name(), event.message());
+                break;
+            case FLUSH:
+                extent.flush();
+                break;
+            default:
+                throw new IllegalStateException("Unknown report event " + event.type());
+        }
+    }
+}
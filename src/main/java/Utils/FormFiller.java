@@ -0,0 +1,81 @@
+package Utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Fills several form fields in one go.
+// In SCRIPT mode all fields are set by a single executeScript call that uses the element's native value setter
+// and fires 'input' and 'change' events, which is what React-style apps listen to. Any field the script could
+// not find or whose value did not stick is then typed for real, one keystroke at a time.
+// KEYSTROKES mode types every field, for flows that depend on key events. FORM_FILL_MODE picks the default.
+public class FormFiller {
+
+    public enum Mode { SCRIPT, KEYSTROKES }
+
+    private static final String SCRIPT =
+            "var fields = arguments[0], failed = [];" +
+            "fields.forEach(function (field, index) {" +
+            // A field the script cannot handle (a file input, a custom element whose setter throws) is left to the
+            // keystroke fallback instead of aborting the whole batch.
+            "  try {" +
+            "    var element;" +
+            "    if (field.strategy === 'xpath') {" +
+            "      element = document.evaluate(field.query, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+            "    } else {" +
+            "      element = document.querySelector(field.query);" +
+            "    }" +
+            "    if (!element) { failed.push(index); return; }" +
+            "    var prototype = element instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype" +
+            "        : element instanceof HTMLSelectElement ? HTMLSelectElement.prototype : HTMLInputElement.prototype;" +
+            "    var setter = Object.getOwnPropertyDescriptor(prototype, 'value').set;" +
+            "    element.focus();" +
+            "    setter.call(element, field.value);" +
+            "    element.dispatchEvent(new Event('input', { bubbles: true }));" +
+            "    element.dispatchEvent(new Event('change', { bubbles: true }));" +
+            "    element.blur();" +
+            "    if (element.value !== field.value) { failed.push(index); }" +
+            "  } catch (e) { failed.push(index); }" +
+            "});" +
+            "return failed;";
+
+    public static Mode defaultMode() {
+        return Mode.valueOf(RunConfig.get("FORM_FILL_MODE", Mode.SCRIPT.name()).toUpperCase());
+    }
+
+    public static void fill(WebDriver driver, Map<By, String> fields, Mode mode) {
+        List<By> locators = new ArrayList<>(fields.keySet());
+
+        if (mode == Mode.KEYSTROKES) {
+            for (By by : locators) {
+                type(driver, by, fields.get(by));
+            }
+            return;
+        }
+
+        List<Map<String, String>> payload = new ArrayList<>();
+        for (By by : locators) {
+            Locator locator = Locator.of(by);
+            payload.add(Map.of("strategy", locator.strategy(), "query", locator.query(), "value", fields.get(by)));
+        }
+
+        List<?> failed = (List<?>) ((JavascriptExecutor) driver).executeScript(SCRIPT, payload);
+
+        // Falling back to real typing for the fields the script could not handle.
+        for (Object index : failed) {
+            By by = locators.get(((Number) index).intValue());
+            type(driver, by, fields.get(by));
+        }
+    }
+
+    private static void type(WebDriver driver, By by, String value) {
+        WebElement element = driver.findElement(by);
+        element.clear();
+        element.sendKeys(value);
+    }
+}
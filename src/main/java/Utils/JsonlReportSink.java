@@ -0,0 +1,77 @@
+package Utils;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+// Appends every report event as one JSON line to an event log, instead of building the report in memory.
+// The log is flushed to disk whenever the report writer runs out of events, so an aborted run keeps
+// everything logged up to that point. ReportRenderer turns the log into the HTML report.
+// On a FLUSH event the log is flushed and, if anything was logged since the last one, afterFlush runs
+// (the listener renders the HTML there).
+public class JsonlReportSink implements Consumer<ReportEvent>, Flushable {
+
+    private static final Gson gson = new Gson();
+
+    private final Path file;
+    private final Runnable afterFlush;
+    private BufferedWriter writer;
+    private boolean changed;
+
+    public JsonlReportSink(Path file, Runnable afterFlush) {
+        this.file = file;
+        this.afterFlush = afterFlush;
+    }
+
+    @Override
+    public void accept(ReportEvent event) {
+        try {
+            if (event.type() == ReportEvent.Type.FLUSH) {
+                flush();
+                if (changed) {
+                    changed = false;
+                    afterFlush.run();
+                }
+                return;
+            }
+            writer().write(gson.toJson(event));
+            writer().newLine();
+            changed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the report event log " + file, e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // Opened on first use, so a run without tests does not replace the log of the previous run.
+    private BufferedWriter writer() throws IOException {
+        if (writer == null) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+        return writer;
+    }
+
+    static ReportEvent parse(String line) {
+        return gson.fromJson(line, ReportEvent.class);
+    }
+}
@@ -0,0 +1,89 @@
+package Utils;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.List;
+
+// Named ways of launching Chrome, picked per run with LAUNCH_PROFILE (default debug-headed).
+// A profile decides headless mode, the initial window size, when driver.get() returns, and which extra
+// Chrome flags are used to switch off background work the tests never need.
+public enum LaunchProfile {
+
+    FAST_HEADLESS("fast-headless", true, "1366,768", PageLoadStrategy.EAGER, true),
+    DEBUG_HEADED("debug-headed", false, "1920,1080", PageLoadStrategy.NORMAL, false),
+    CI("ci", true, "1920,1080", PageLoadStrategy.NORMAL, true);
+
+    // Flags that cut CPU and memory per session without changing how the pages under test behave.
+    private static final List<String> LEAN_FLAGS = List.of(
+            "--disable-gpu",
+            "--disable-extensions",
+            "--disable-background-networking",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--disable-sync",
+            "--disable-translate",
+            "--disable-features=Translate,OptimizationHints,MediaRouter",
+            "--metrics-recording-only",
+            "--mute-audio",
+            "--no-first-run",
+            "--no-default-browser-check");
+
+    // Container-friendly flags for build agents: no setuid sandbox and no reliance on a small /dev/shm.
+    private static final List<String> CI_FLAGS = List.of(
+            "--no-sandbox",
+            "--disable-dev-shm-usage");
+
+    private final String profileName;
+    private final boolean headless;
+    private final String windowSize;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean lean;
+
+    LaunchProfile(String profileName, boolean headless, String windowSize, PageLoadStrategy pageLoadStrategy, boolean lean) {
+        this.profileName = profileName;
+        this.headless = headless;
+        this.windowSize = windowSize;
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.lean = lean;
+    }
+
+    public static LaunchProfile current() {
+        return byName(RunConfig.get("LAUNCH_PROFILE", DEBUG_HEADED.profileName));
+    }
+
+    public static LaunchProfile byName(String name) {
+        for (LaunchProfile profile : values()) {
+            if (profile.profileName.equalsIgnoreCase(name) || profile.name().equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalStateException("Unknown launch profile '" + name + "'. Use fast-headless, debug-headed or ci.");
+    }
+
+    public void applyTo(ChromeOptions options) {
+
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+
+        // Sizing the window at launch instead of calling maximize(), which costs an extra round trip
+        // and does nothing useful in headless mode.
+        options.addArguments("--window-size=" + windowSize);
+
+        // PAGE_LOAD_STRATEGY overrides the profile's choice: normal, eager or none.
+        String strategy = RunConfig.get("PAGE_LOAD_STRATEGY", null);
+        options.setPageLoadStrategy(strategy != null ? PageLoadStrategy.fromString(strategy.toLowerCase()) : pageLoadStrategy);
+
+        if (lean) {
+            options.addArguments(LEAN_FLAGS);
+        }
+        if (this == CI) {
+            options.addArguments(CI_FLAGS);
+        }
+    }
+
+    public String getProfileName() {
+        return profileName;
+    }
+}
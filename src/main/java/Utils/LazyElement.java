@@ -0,0 +1,159 @@
+package Utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// The value of a generated page-object field: a plain class, not a dynamic proxy.
+// Nothing is looked up until the element is first used; after that the locator's cached element is reused,
+// and a StaleElementReferenceException makes it locate the element again and retry the call once.
+public class LazyElement implements WebElement, WrapsElement, Locatable {
+
+    private final CachingElementLocator locator;
+    private final String name;
+
+    public LazyElement(CachingElementLocator locator, String name) {
+        this.locator = locator;
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public By getBy() {
+        return locator.getBy();
+    }
+
+    // Every call is a step of the test's timeline, e.g. "LoginPage.loginButton click".
+    private <T> T call(String method, Function<WebElement, T> action) {
+        return StepTimeline.step(name + " " + method, () -> {
+            try {
+                return action.apply(locator.findElement());
+            } catch (StaleElementReferenceException e) {
+                locator.invalidate();
+                return action.apply(locator.findElement());
+            }
+        });
+    }
+
+    private void run(String method, Consumer<WebElement> action) {
+        call(method, element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+    @Override
+    public void click() {
+        run("click", WebElement::click);
+    }
+
+    @Override
+    public void submit() {
+        run("submit", WebElement::submit);
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        run("sendKeys", element -> element.sendKeys(keysToSend));
+    }
+
+    @Override
+    public void clear() {
+        run("clear", WebElement::clear);
+    }
+
+    @Override
+    public String getTagName() {
+        return call("getTagName", WebElement::getTagName);
+    }
+
+    @Override
+    public String getAttribute(String attributeName) {
+        return call("getAttribute", element -> element.getAttribute(attributeName));
+    }
+
+    @Override
+    public boolean isSelected() {
+        return call("isSelected", WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return call("isEnabled", WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return call("getText", WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return call("findElements", element -> element.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return call("findElement", element -> element.findElement(by));
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return call("isDisplayed", WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return call("getLocation", WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return call("getSize", WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return call("getRect", WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return call("getCssValue", element -> element.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+        return call("getScreenshotAs", element -> element.getScreenshotAs(target));
+    }
+
+    @Override
+    public WebElement getWrappedElement() {
+        return locator.findElement();
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+        return call("getCoordinates", element -> ((Locatable) element).getCoordinates());
+    }
+
+    // Describing the field must not cost a round trip, and must not depend on the session (wait telemetry keys on it).
+    @Override
+    public String toString() {
+        return "Element " + name + " for: " + locator;
+    }
+}
@@ -0,0 +1,28 @@
+package Utils;
+
+import com.google.common.collect.ForwardingList;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+// The value of a generated List<WebElement> page-object field.
+// Like PageFactory's list proxy it locates the elements again on every use, because the number of matches
+// changes as the page updates; iterating it costs a single findElements round trip.
+public class LazyElementList extends ForwardingList<WebElement> {
+
+    private final CachingElementLocator locator;
+
+    public LazyElementList(CachingElementLocator locator) {
+        this.locator = locator;
+    }
+
+    @Override
+    protected List<WebElement> delegate() {
+        return locator.findElements();
+    }
+
+    @Override
+    public String toString() {
+        return "Elements for: " + locator;
+    }
+}
@@ -0,0 +1,100 @@
+package Utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+// A By that also knows how to find its elements from inside the page: a strategy ("css" or "xpath") and the query
+// for document.querySelectorAll or document.evaluate. BulkExtractor, FormFiller and LocatorAudit run their lookups
+// in a single script and only accept these; Selenium's own By classes do not expose their values.
+// Everywhere else it behaves like the By it was created from (Locator.id("x") finds and prints like By.id("x")).
+public class Locator extends By {
+
+    private final By by;
+    private final String strategy;
+    private final String query;
+
+    private Locator(By by, String strategy, String query) {
+        this.by = by;
+        this.strategy = strategy;
+        this.query = query;
+    }
+
+    public static Locator id(String id) {
+        return new Locator(By.id(id), "css", "[id=" + cssString(id) + "]");
+    }
+
+    public static Locator name(String name) {
+        return new Locator(By.name(name), "css", "[name=" + cssString(name) + "]");
+    }
+
+    public static Locator className(String className) {
+        return new Locator(By.className(className), "css", "." + className.trim().replaceAll("\\s+", "."));
+    }
+
+    public static Locator cssSelector(String selector) {
+        return new Locator(By.cssSelector(selector), "css", selector);
+    }
+
+    public static Locator tagName(String tagName) {
+        return new Locator(By.tagName(tagName), "css", tagName);
+    }
+
+    public static Locator linkText(String linkText) {
+        return new Locator(By.linkText(linkText), "xpath", "//a[normalize-space(.)=" + xpathString(linkText) + "]");
+    }
+
+    public static Locator partialLinkText(String linkText) {
+        return new Locator(By.partialLinkText(linkText), "xpath", "//a[contains(., " + xpathString(linkText) + ")]");
+    }
+
+    public static Locator xpath(String xpath) {
+        return new Locator(By.xpath(xpath), "xpath", xpath);
+    }
+
+    // The given By as a Locator, for the tools that need its strategy and query.
+    public static Locator of(By by) {
+        if (!(by instanceof Locator)) {
+            throw new IllegalArgumentException("Not a Utils.Locator, so it cannot be looked up from a script: " + by
+                    + "; create it with Locator.id, Locator.cssSelector, Locator.xpath, ...");
+        }
+        return (Locator) by;
+    }
+
+    // "css" or "xpath".
+    public String strategy() {
+        return strategy;
+    }
+
+    public String query() {
+        return query;
+    }
+
+    @Override
+    public List<WebElement> findElements(SearchContext context) {
+        return by.findElements(context);
+    }
+
+    @Override
+    public WebElement findElement(SearchContext context) {
+        return by.findElement(context);
+    }
+
+    @Override
+    public String toString() {
+        return by.toString();
+    }
+
+    private static String cssString(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String xpathString(String value) {
+        if (!value.contains("'")) {
+            return "'" + value + "'";
+        }
+        return "concat('" + value.replace("'", "', \"'\", '") + "')";
+    }
+}
@@ -0,0 +1,287 @@
+package Utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Measures what every locator of a page object costs to evaluate in the browser, against the document
+// currently loaded. All locators of a page are timed in one executeScript call, so the numbers are the
+// browser's own querySelectorAll / document.evaluate time, without the WebDriver round trip.
+// Besides the cost it reports how many elements match, flags single-element fields matching several elements
+// and XPaths that start with a full-document wildcard (//*), and proposes a cheaper selector. A proposal is only
+// kept when it was measured on the same document, matched exactly the same elements and was faster.
+public class LocatorAudit {
+
+    public enum Flag { NOT_FOUND, AMBIGUOUS, WILDCARD, ERROR }
+
+    private static final String SCRIPT =
+            "var specs = arguments[0], runs = arguments[1];" +
+            "var find = function (strategy, query) {" +
+            "  if (strategy === 'xpath') {" +
+            "    var found = document.evaluate(query, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), nodes = [];" +
+            "    for (var i = 0; i < found.snapshotLength; i++) { nodes.push(found.snapshotItem(i)); }" +
+            "    return nodes;" +
+            "  }" +
+            "  return Array.prototype.slice.call(document.querySelectorAll(query));" +
+            "};" +
+            // Median over five batches of the average time per evaluation, in microseconds; batching works
+            // around the coarse resolution of performance.now().
+            "var time = function (strategy, query) {" +
+            "  var batches = [], perBatch = Math.max(1, Math.floor(runs / 5));" +
+            "  for (var b = 0; b < 5; b++) {" +
+            "    var start = performance.now();" +
+            "    for (var r = 0; r < perBatch; r++) { find(strategy, query); }" +
+            "    batches.push((performance.now() - start) * 1000 / perBatch);" +
+            "  }" +
+            "  batches.sort(function (a, b) { return a - b; });" +
+            "  return batches[2];" +
+            "};" +
+            "var same = function (a, b) {" +
+            "  return a.length === b.length && a.every(function (node, i) { return node === b[i]; });" +
+            "};" +
+            "return specs.map(function (spec) {" +
+            "  var result = {};" +
+            "  try {" +
+            "    var nodes = find(spec.strategy, spec.query);" +
+            "    result.matches = nodes.length;" +
+            "    result.micros = time(spec.strategy, spec.query);" +
+            "    var tags = [];" +
+            "    nodes.forEach(function (node) { var tag = node.tagName.toLowerCase(); if (tags.indexOf(tag) < 0) { tags.push(tag); } });" +
+            "    var candidates = spec.candidates.slice();" +
+            // A //* step whose matches all share one tag can at least name that tag.
+            "    if (spec.strategy === 'xpath' && tags.length === 1 && spec.query.indexOf('//*') >= 0) {" +
+            "      candidates.push({ strategy: 'xpath', query: spec.query.replace('//*', '//' + tags[0]) });" +
+            "    }" +
+            "    var best = null;" +
+            "    candidates.forEach(function (candidate) {" +
+            "      try {" +
+            "        if (!nodes.length || !same(nodes, find(candidate.strategy, candidate.query))) { return; }" +
+            "        var micros = time(candidate.strategy, candidate.query);" +
+            "        if (micros < result.micros && (!best || micros < best.micros)) {" +
+            "          best = { strategy: candidate.strategy, query: candidate.query, micros: micros };" +
+            "        }" +
+            "      } catch (e) { }" +
+            "    });" +
+            "    result.suggestion = best;" +
+            "  } catch (e) { result.error = String(e); }" +
+            "  return result;" +
+            "});";
+
+    // A single location step from the document root with a predicate, e.g. //button[@type = 'submit'].
+    private static final Pattern STEP = Pattern.compile("^//([A-Za-z][\\w-]*|\\*)\\[(.+)]$");
+    private static final Pattern EQUALS = Pattern.compile("^@([\\w-]+)\\s*=\\s*(?:'([^']*)'|\"([^\"]*)\")$");
+    private static final Pattern CONTAINS = Pattern.compile("^contains\\(\\s*@([\\w-]+)\\s*,\\s*(?:'([^']*)'|\"([^\"]*)\")\\s*\\)$");
+    private static final Pattern STARTS_WITH = Pattern.compile("^starts-with\\(\\s*@([\\w-]+)\\s*,\\s*(?:'([^']*)'|\"([^\"]*)\")\\s*\\)$");
+    private static final Pattern HAS_ATTRIBUTE = Pattern.compile("^@([\\w-]+)$");
+    private static final Pattern WILDCARD = Pattern.compile("(^|[(|]\\s*)//\\*");
+
+    public static class Finding {
+
+        private final String page;
+        private final String field;
+        private final String target;
+        private final By by;
+        private final long matches;
+        private final double micros;
+        private final Set<Flag> flags;
+        private final String suggestion;
+        private final double suggestionMicros;
+        private final String error;
+
+        Finding(String page, String field, String target, By by, long matches, double micros, Set<Flag> flags,
+                String suggestion, double suggestionMicros, String error) {
+            this.page = page;
+            this.field = field;
+            this.target = target;
+            this.by = by;
+            this.matches = matches;
+            this.micros = micros;
+            this.flags = flags;
+            this.suggestion = suggestion;
+            this.suggestionMicros = suggestionMicros;
+            this.error = error;
+        }
+
+        public String getPage() {
+            return page;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public By getBy() {
+            return by;
+        }
+
+        public long getMatches() {
+            return matches;
+        }
+
+        public double getMicros() {
+            return micros;
+        }
+
+        public Set<Flag> getFlags() {
+            return flags;
+        }
+
+        public String getSuggestion() {
+            return suggestion;
+        }
+
+        public double getSuggestionMicros() {
+            return suggestionMicros;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    // Audits the locators of one page against the document the driver currently shows.
+    // listFields are the fields declared as List<WebElement>, for which several matches are expected.
+    public static List<Finding> audit(WebDriver driver, String page, String target, Map<String, By> locators,
+                                      Set<String> listFields, int runs) {
+        List<String> fields = new ArrayList<>(locators.keySet());
+        List<Map<String, Object>> specs = new ArrayList<>();
+        for (String field : fields) {
+            Locator locator = Locator.of(locators.get(field));
+            List<Map<String, String>> candidates = new ArrayList<>();
+            if (locator.strategy().equals("xpath")) {
+                String css = cssEquivalent(locator.query());
+                if (css != null) {
+                    candidates.add(Map.of("strategy", "css", "query", css));
+                }
+            }
+            specs.add(Map.of("strategy", locator.strategy(), "query", locator.query(), "candidates", candidates));
+        }
+
+        List<?> results = (List<?>) ((JavascriptExecutor) driver).executeScript(SCRIPT, specs, runs);
+
+        List<Finding> findings = new ArrayList<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            Map<?, ?> result = (Map<?, ?>) results.get(i);
+            String query = specs.get(i).get("query").toString();
+
+            Set<Flag> flags = new LinkedHashSet<>();
+            Object error = result.get("error");
+            long matches = result.get("matches") == null ? 0 : ((Number) result.get("matches")).longValue();
+            double micros = result.get("micros") == null ? 0 : ((Number) result.get("micros")).doubleValue();
+            if (error != null) {
+                flags.add(Flag.ERROR);
+            } else if (matches == 0) {
+                flags.add(Flag.NOT_FOUND);
+            } else if (matches > 1 && !listFields.contains(field)) {
+                flags.add(Flag.AMBIGUOUS);
+            }
+            if (specs.get(i).get("strategy").equals("xpath") && WILDCARD.matcher(query).find()) {
+                flags.add(Flag.WILDCARD);
+            }
+
+            String suggestion = null;
+            double suggestionMicros = 0;
+            Map<?, ?> best = (Map<?, ?>) result.get("suggestion");
+            if (best != null) {
+                suggestion = best.get("strategy") + " " + best.get("query");
+                suggestionMicros = ((Number) best.get("micros")).doubleValue();
+            }
+
+            findings.add(new Finding(page, field, target, locators.get(field), matches, micros, flags,
+                    suggestion, suggestionMicros, error == null ? null : error.toString()));
+        }
+        return findings;
+    }
+
+    // The CSS selector selecting the same elements as a simple XPath such as
+    // //*[@data-name = 'x' and contains(@class, 'y')], or null when the XPath uses anything CSS cannot express
+    // (text(), positions, axes, functions other than contains/starts-with on attributes).
+    static String cssEquivalent(String xpath) {
+        Matcher step = STEP.matcher(xpath.trim());
+        if (!step.matches()) {
+            return null;
+        }
+        StringBuilder css = new StringBuilder(step.group(1).equals("*") ? "" : step.group(1));
+        for (String predicate : step.group(2).split("\\s+and\\s+")) {
+            String part = predicate.trim();
+            Matcher matcher;
+            if ((matcher = EQUALS.matcher(part)).matches()) {
+                css.append('[').append(matcher.group(1)).append('=').append(cssString(value(matcher))).append(']');
+            } else if ((matcher = CONTAINS.matcher(part)).matches()) {
+                css.append('[').append(matcher.group(1)).append("*=").append(cssString(value(matcher))).append(']');
+            } else if ((matcher = STARTS_WITH.matcher(part)).matches()) {
+                css.append('[').append(matcher.group(1)).append("^=").append(cssString(value(matcher))).append(']');
+            } else if ((matcher = HAS_ATTRIBUTE.matcher(part)).matches()) {
+                css.append('[').append(matcher.group(1)).append(']');
+            } else {
+                return null;
+            }
+        }
+        return css.toString();
+    }
+
+    // Ranks findings, most expensive first, and formats them as a table with the suggested fixes underneath.
+    public static String report(List<Finding> findings, int runs) {
+        List<Finding> ranked = new ArrayList<>(findings);
+        ranked.sort(Comparator.comparingDouble(Finding::getMicros).reversed());
+
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Locator audit: %d locator evaluations, ranked by in-browser cost (median of %d runs)%n%n",
+                ranked.size(), runs));
+        out.append(String.format("%4s %10s %8s  %-40s %-24s %s%n", "#", "cost (us)", "matches", "field", "flags", "locator"));
+
+        int rank = 1;
+        for (Finding finding : ranked) {
+            out.append(String.format("%4d %10.1f %8d  %-40s %-24s %s%n",
+                    rank++, finding.getMicros(), finding.getMatches(), finding.getPage() + "." + finding.getField(),
+                    finding.getFlags().isEmpty() ? "" : finding.getFlags().toString(), finding.getBy()));
+            out.append(String.format("%26s on %s%n", "", finding.getTarget()));
+            if (finding.getSuggestion() != null) {
+                out.append(String.format("%26s -> use %s (%.1f us, same elements)%n", "",
+                        finding.getSuggestion(), finding.getSuggestionMicros()));
+            }
+            if (finding.getError() != null) {
+                out.append(String.format("%26s !! %s%n", "", finding.getError()));
+            }
+        }
+
+        // A field that matched nothing anywhere is either dead or broken.
+        Map<String, Boolean> foundAnywhere = new LinkedHashMap<>();
+        for (Finding finding : findings) {
+            foundAnywhere.merge(finding.getPage() + "." + finding.getField(), finding.getMatches() > 0, Boolean::logicalOr);
+        }
+        List<String> missing = new ArrayList<>();
+        foundAnywhere.forEach((field, found) -> {
+            if (!found) {
+                missing.add(field);
+            }
+        });
+        if (!missing.isEmpty()) {
+            out.append(String.format("%nNot found on any audited page: %s%n", String.join(", ", missing)));
+        }
+        return out.toString();
+    }
+
+    private static String value(Matcher matcher) {
+        return matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+    }
+
+    private static String cssString(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,84 @@
+package Utils;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+// A Chrome session whose whole life is known to the harness.
+// It registers itself with the SessionReaper when it starts and unregisters when it quits, keeps hold of its
+// chromedriver service so its processes can be recorded and killed if quit() never gets through, and removes the
+// cloned profile directory it was started with, if any.
+public class ManagedChromeDriver extends ChromeDriver {
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private static final Gson gson = new Gson();
+
+    private final ChromeDriverService service;
+    private final Path profileClone;
+
+    public ManagedChromeDriver(ChromeDriverService service, ChromeOptions options, Path profileClone) {
+        super(service, options);
+        this.service = service;
+        this.profileClone = profileClone;
+        SessionReaper.register(this);
+    }
+
+    public ChromeDriverService getService() {
+        return service;
+    }
+
+    // Runs a Chrome DevTools Protocol command through chromedriver's own endpoint, which Selenium 3 has no API for,
+    // and returns its result (named like Selenium 4's ChromeDriver.executeCdpCommand).
+    public Map<String, Object> executeCdpCommand(String command, Map<String, Object> parameters) {
+        String body = gson.toJson(Map.of("cmd", command, "params", parameters));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(service.getUrl() + "/session/" + getSessionId() + "/goog/cdp/execute"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            Map<String, Object> answer = gson.fromJson(response.body(), new TypeToken<Map<String, Object>>() { }.getType());
+            Object value = answer == null ? null : answer.get("value");
+            if (response.statusCode() != 200) {
+                throw new WebDriverException("CDP command " + command + " failed: " + value);
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = value instanceof Map ? (Map<String, Object>) value : Map.of();
+            return result;
+        } catch (IOException e) {
+            throw new WebDriverException("CDP command " + command + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted during CDP command " + command, e);
+        }
+    }
+
+    @Override
+    public void quit() {
+        try {
+            super.quit();
+        } finally {
+            SessionReaper.unregister(this);
+            if (service.isRunning()) {
+                service.stop();
+            }
+            SessionReaper.forget(this);
+            if (profileClone != null) {
+                ProfileTemplate.delete(profileClone);
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package Utils;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Generates the element bindings of page objects at compile time, replacing PageFactory.initElements.
+// For every class with @FindBy fields it writes <Page>_Elements next to it, with:
+//   LOCATORS     the By (a Utils.Locator) of every field, by field name, in declaration order;
+//   LIST_FIELDS  the names of the List<WebElement> fields;
+//   bind(page)   assigns a LazyElement / LazyElementList to every field, through BasePage.element(...) and
+//                BasePage.elements(...), so no reflection and no dynamic proxies are involved at runtime.
+// Fields must be visible to the generated class (not private), not final and not static.
+// This class must only depend on the JDK: Maven compiles it on its own before the rest of the sources.
+@SupportedAnnotationTypes(PageBindingProcessor.FIND_BY)
+public class PageBindingProcessor extends AbstractProcessor {
+
+    static final String FIND_BY = "org.openqa.selenium.support.FindBy";
+    static final String SUFFIX = "_Elements";
+
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+
+    // @FindBy attribute -> By factory; attributes are checked in this order, like Selenium's FindBy.FindByBuilder.
+    private static final Map<String, String> STRATEGIES = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put("id", "Utils.Locator.id");
+        STRATEGIES.put("name", "Utils.Locator.name");
+        STRATEGIES.put("className", "Utils.Locator.className");
+        STRATEGIES.put("css", "Utils.Locator.cssSelector");
+        STRATEGIES.put("tagName", "Utils.Locator.tagName");
+        STRATEGIES.put("linkText", "Utils.Locator.linkText");
+        STRATEGIES.put("partialLinkText", "Utils.Locator.partialLinkText");
+        STRATEGIES.put("xpath", "Utils.Locator.xpath");
+    }
+
+    // @FindBy(how = ..., using = ...) -> By factory.
+    private static final Map<String, String> HOWS = Map.of(
+            "ID", "Utils.Locator.id",
+            "NAME", "Utils.Locator.name",
+            "CLASS_NAME", "Utils.Locator.className",
+            "CSS", "Utils.Locator.cssSelector",
+            "TAG_NAME", "Utils.Locator.tagName",
+            "LINK_TEXT", "Utils.Locator.linkText",
+            "PARTIAL_LINK_TEXT", "Utils.Locator.partialLinkText",
+            "XPATH", "Utils.Locator.xpath",
+            "ID_OR_NAME", "new org.openqa.selenium.support.pagefactory.ByIdOrName");
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement findBy = processingEnv.getElementUtils().getTypeElement(FIND_BY);
+        if (findBy == null) {
+            return false;
+        }
+
+        Map<TypeElement, List<VariableElement>> pages = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(findBy)) {
+            if (element instanceof VariableElement && element.getEnclosingElement() instanceof TypeElement) {
+                pages.computeIfAbsent((TypeElement) element.getEnclosingElement(), page -> new ArrayList<>())
+                        .add((VariableElement) element);
+            }
+        }
+
+        for (Map.Entry<TypeElement, List<VariableElement>> page : pages.entrySet()) {
+            write(page.getKey(), page.getValue(), findBy);
+        }
+        return false;
+    }
+
+    private void write(TypeElement page, List<VariableElement> fields, TypeElement findBy) {
+        Map<String, String> locators = new LinkedHashMap<>();
+        List<String> lists = new ArrayList<>();
+
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+                error(field, "@FindBy field " + name + " must not be private, final or static so the generated "
+                        + page.getSimpleName() + SUFFIX + " can assign it");
+                continue;
+            }
+
+            boolean list = isListOfWebElements(field.asType());
+            if (!list && !isWebElement(field.asType())) {
+                error(field, "@FindBy field " + name + " must be a WebElement or a List<WebElement>");
+                continue;
+            }
+
+            String by = byExpression(field, findBy);
+            if (by != null) {
+                locators.put(name, by);
+                if (list) {
+                    lists.add(name);
+                }
+            }
+        }
+
+        if (locators.size() != fields.size()) {
+            return;
+        }
+
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(page);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String pageName = page.getQualifiedName().toString();
+        String simpleName = page.getSimpleName() + SUFFIX;
+        String generatedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(generatedName, page).openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("import org.openqa.selenium.By;");
+            out.println();
+            out.println("import java.util.Collections;");
+            out.println("import java.util.LinkedHashMap;");
+            out.println("import java.util.Map;");
+            out.println("import java.util.Set;");
+            out.println();
+            out.println("// Generated by " + PageBindingProcessor.class.getName() + " from the @FindBy fields of "
+                    + page.getSimpleName() + ". Do not edit.");
+            out.println("@javax.annotation.processing.Generated(\"" + PageBindingProcessor.class.getName() + "\")");
+            out.println("final class " + simpleName + " {");
+            out.println();
+            out.println("    static final Map<String, By> LOCATORS;");
+            out.println();
+            out.println("    static final Set<String> LIST_FIELDS = Set.of(" + String.join(", ", quoted(lists)) + ");");
+            out.println();
+            out.println("    static {");
+            out.println("        Map<String, By> locators = new LinkedHashMap<>();");
+            for (Map.Entry<String, String> locator : locators.entrySet()) {
+                out.println("        locators.put(\"" + locator.getKey() + "\", " + locator.getValue() + ");");
+            }
+            out.println("        LOCATORS = Collections.unmodifiableMap(locators);");
+            out.println("    }");
+            out.println();
+            out.println("    private " + simpleName + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    static void bind(" + pageName + " page) {");
+            for (String name : locators.keySet()) {
+                if (lists.contains(name)) {
+                    out.println("        page." + name + " = page.elements(LOCATORS.get(\"" + name + "\"));");
+                } else {
+                    out.println("        page." + name + " = page.element(LOCATORS.get(\"" + name + "\"), \"" + name + "\");");
+                }
+            }
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            error(page, "Could not write " + generatedName + ": " + e.getMessage());
+        }
+    }
+
+    // Turns the field's @FindBy into the Java expression creating the same By.
+    private String byExpression(VariableElement field, TypeElement findBy) {
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(findBy)) {
+                continue;
+            }
+
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+            }
+
+            Object how = values.get("how");
+            if (how != null && !"UNSET".equals(how.toString())) {
+                Object using = values.get("using");
+                if (using == null) {
+                    error(field, "@FindBy(how = " + how + ") on " + field.getSimpleName() + " needs 'using'");
+                    return null;
+                }
+                return HOWS.get(how.toString()) + "(" + literal(using) + ")";
+            }
+
+            for (Map.Entry<String, String> strategy : STRATEGIES.entrySet()) {
+                Object value = values.get(strategy.getKey());
+                if (value != null && !value.toString().isEmpty()) {
+                    return strategy.getValue() + "(" + literal(value) + ")";
+                }
+            }
+
+            error(field, "@FindBy on " + field.getSimpleName() + " does not name a locator");
+            return null;
+        }
+        return null;
+    }
+
+    private boolean isWebElement(TypeMirror type) {
+        return type.toString().equals(WEB_ELEMENT);
+    }
+
+    private boolean isListOfWebElements(TypeMirror type) {
+        if (!(type instanceof DeclaredType)) {
+            return false;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        return ((TypeElement) declared.asElement()).getQualifiedName().contentEquals("java.util.List")
+                && declared.getTypeArguments().size() == 1
+                && isWebElement(declared.getTypeArguments().get(0));
+    }
+
+    private String literal(Object value) {
+        return processingEnv.getElementUtils().getConstantExpression(value.toString());
+    }
+
+    private static List<String> quoted(List<String> names) {
+        List<String> quoted = new ArrayList<>();
+        for (String name : names) {
+            quoted.add("\"" + name + "\"");
+        }
+        return quoted;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
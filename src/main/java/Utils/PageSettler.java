@@ -0,0 +1,154 @@
+package Utils;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Map;
+
+// Waits until the page in the browser has stopped changing, instead of sleeping for a fixed time.
+// A small probe counts fetch/XHR requests in flight, records when nodes were last added, removed or had their text
+// changed through a MutationObserver (attribute and style changes, e.g. a carousel sliding, do not count),
+// and notes when a frame was last painted. install(driver) registers it with Chrome for every new document at
+// session start, so it sees the requests a page starts before anybody polls it; for other drivers (and windows
+// opened later) it is installed on the first poll. The page counts as
+// settled once it is loaded, has no requests in flight, no finite CSS/Web animation running, has had no
+// network or DOM activity for the quiet period, and has painted at least one frame since.
+// SETTLE_QUIET_MS (default 500) and SETTLE_TIMEOUT_SECONDS (default 10, the longest of the fixed sleeps this
+// replaced) set the defaults. Some pages never go quiet (long polling, analytics beacons, endless DOM churn);
+// settle(...) then gives up after the budget and lets the test go on with what is rendered.
+public class PageSettler {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    // Hooks fetch/XHR and the DOM; safe to run at document start and more than once.
+    private static final String INSTALL =
+            "var w = window;" +
+            "if (!w.__settle) {" +
+            "  var s = w.__settle = { inflight: 0, lastActivity: Date.now(), lastFrame: 0, framePending: false };" +
+            "  var touch = function () { s.lastActivity = Date.now(); };" +
+            "  if (w.fetch) {" +
+            "    var originalFetch = w.fetch;" +
+            "    w.fetch = function () {" +
+            "      s.inflight++; touch();" +
+            "      var done = function () { s.inflight--; touch(); };" +
+            "      try {" +
+            "        var request = originalFetch.apply(this, arguments);" +
+            "        request.then(done, done);" +
+            "        return request;" +
+            "      } catch (e) { done(); throw e; }" +
+            "    };" +
+            "  }" +
+            "  var originalSend = XMLHttpRequest.prototype.send;" +
+            "  XMLHttpRequest.prototype.send = function () {" +
+            "    s.inflight++; touch();" +
+            "    this.addEventListener('loadend', function () { s.inflight--; touch(); });" +
+            "    return originalSend.apply(this, arguments);" +
+            "  };" +
+            "  new MutationObserver(touch).observe(document, { subtree: true, childList: true, characterData: true });" +
+            "}";
+
+    private static final String PROBE = INSTALL +
+            "var s = w.__settle;" +
+            "if (!s.framePending) {" +
+            "  s.framePending = true;" +
+            "  requestAnimationFrame(function () { s.framePending = false; s.lastFrame = Date.now(); });" +
+            "}" +
+            "var animating = 0;" +
+            "if (document.getAnimations) {" +
+            "  animating = document.getAnimations().filter(function (a) {" +
+            "    var timing = a.effect && a.effect.getTiming ? a.effect.getTiming() : {};" +
+            "    return a.playState === 'running' && timing.iterations !== Infinity;" +
+            "  }).length;" +
+            "}" +
+            "return { readyState: document.readyState, inflight: s.inflight, quietFor: Date.now() - s.lastActivity," +
+            "         painted: s.lastFrame >= s.lastActivity, animating: animating };";
+
+    // Registers the probe for every document the session loads from now on. Called once per new session.
+    public static void install(WebDriver driver) {
+        if (driver instanceof ManagedChromeDriver) {
+            ((ManagedChromeDriver) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", INSTALL));
+        }
+    }
+
+    // Waits for the page to settle with the configured defaults; false when it did not within the budget.
+    public static boolean settle(WebDriver driver) {
+        return settle(driver, quietMillis(), timeoutMillis());
+    }
+
+    // Waits for the page to settle; when it has not within timeoutMillis that is logged and false returned.
+    public static boolean settle(WebDriver driver, long quietMillis, long timeoutMillis) {
+        String unsettled = awaitSettled(driver, quietMillis, timeoutMillis);
+        if (unsettled != null) {
+            System.out.println(unsettled + "; going on");
+        }
+        return unsettled == null;
+    }
+
+    // Same as settle(driver), throwing a TimeoutException when the page did not settle.
+    public static void waitUntilSettled(WebDriver driver) {
+        waitUntilSettled(driver, quietMillis(), timeoutMillis());
+    }
+
+    public static void waitUntilSettled(WebDriver driver, long quietMillis, long timeoutMillis) {
+        String unsettled = awaitSettled(driver, quietMillis, timeoutMillis);
+        if (unsettled != null) {
+            throw new TimeoutException(unsettled);
+        }
+    }
+
+    private static long quietMillis() {
+        return RunConfig.getInt("SETTLE_QUIET_MS", 500);
+    }
+
+    private static long timeoutMillis() {
+        return RunConfig.getInt("SETTLE_TIMEOUT_SECONDS", 10) * 1000L;
+    }
+
+    // Polls the probe until the page is settled (returns null) or the time is up (returns what was last seen).
+    private static String awaitSettled(WebDriver driver, long quietMillis, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        Map<?, ?> state = null;
+
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                state = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(PROBE);
+                if (isSettled(state, quietMillis)) {
+                    return null;
+                }
+            } catch (JavascriptException | StaleElementReferenceException e) {
+                // The document was replaced while probing (navigation in progress); the next probe re-installs itself.
+            } catch (WebDriverException e) {
+                // Same, reported by chromedriver as a lost execution context; anything else (a dead session,
+                // an unreachable browser) will not get better by polling.
+                if (e instanceof TimeoutException || e.getMessage() == null || !e.getMessage().contains("context")) {
+                    throw e;
+                }
+            }
+            pause();
+        }
+
+        return "Page did not settle within " + timeoutMillis + " ms, last state: " + state;
+    }
+
+    private static boolean isSettled(Map<?, ?> state, long quietMillis) {
+        return state != null
+                && !"loading".equals(state.get("readyState"))
+                && ((Number) state.get("inflight")).longValue() <= 0
+                && ((Number) state.get("animating")).longValue() == 0
+                && ((Number) state.get("quietFor")).longValue() >= quietMillis
+                && Boolean.TRUE.equals(state.get("painted"));
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the page to settle.", e);
+        }
+    }
+}
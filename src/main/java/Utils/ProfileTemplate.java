@@ -0,0 +1,206 @@
+package Utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// A Chrome user-data-dir that has already visited the sites under test, so its HTTP, code and
+// service-worker caches are populated. Every session gets its own copy of it, which means the first
+// driver.get(...) of a test is served mostly from disk instead of the network.
+// PROFILE_TEMPLATE=true enables it. PROFILE_TEMPLATE_DIR, PROFILE_WARM_URLS (comma separated) and
+// PROFILE_TEMPLATE_MAX_AGE_HOURS (default 24) control where it lives, what gets warmed and when it is rebuilt.
+// Forks share the template through a lock file next to it: a fork rebuilds it only while no other fork uses it,
+// and every fork holds a shared lock while it clones from it.
+public class ProfileTemplate {
+
+    private static final String DEFAULT_WARM_URLS = "https://demo.wearehaive.com/ro/solutions/restaurants,"
+            + "https://fasttrackit-test.netlify.app/#/,"
+            + "https://www.emag.ro/";
+
+    // Chrome's per-process locks; copying them would make the clone look like it is already in use.
+    private static final Set<String> SKIPPED_FILES = Set.of("SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile");
+
+    private static final Path templateDir = Paths.get(RunConfig.get("PROFILE_TEMPLATE_DIR",
+            Paths.get(System.getProperty("user.home"), ".cache", "chrome-profile-template").toString())).toAbsolutePath();
+    // Clones sit next to the template, on the same file system, so a copy-on-write clone is possible.
+    private static final Path clonesDir = templateDir.resolveSibling(templateDir.getFileName() + "-clones");
+    private static final Path lockFile = templateDir.resolveSibling(templateDir.getFileName() + ".lock");
+
+    private static volatile boolean ready;
+    // Held for the life of the JVM once the template is ready, so no other fork rebuilds it underneath this one.
+    private static FileChannel lockChannel;
+
+    public static boolean isEnabled() {
+        return RunConfig.getBoolean("PROFILE_TEMPLATE", false);
+    }
+
+    // Returns a fresh, private user-data-dir for one session. The caller owns it and should delete it after quit().
+    public static Path cloneForSession() {
+        ensureWarmed();
+        try {
+            Files.createDirectories(clonesDir);
+            Path clone = Files.createTempDirectory(clonesDir, "chrome-profile-");
+            // Chrome rewrites its cache entries and indexes in place, so sharing them between clones (or with the
+            // template) through hard links would let one session corrupt the others; every clone gets real copies.
+            if (!reflinkCopy(clone)) {
+                try (Stream<Path> files = Files.walk(templateDir)) {
+                    files.forEach(source -> cloneEntry(source, clone.resolve(templateDir.relativize(source).toString())));
+                }
+            }
+            return clone;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clone Chrome profile template " + templateDir, e);
+        }
+    }
+
+    public static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.out.println("Could not delete Chrome profile clone " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private static void ensureWarmed() {
+        if (ready) {
+            return;
+        }
+        synchronized (ProfileTemplate.class) {
+            if (!ready) {
+                lockTemplate();
+                ready = true;
+            }
+        }
+    }
+
+    // Rebuilds a stale template under an exclusive lock when no other fork holds it, then keeps a shared lock.
+    // A fork that finds the template stale while others use it simply uses it as it is.
+    private static void lockTemplate() {
+        try {
+            Files.createDirectories(lockFile.getParent());
+            lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (isStale()) {
+                FileLock exclusive = lockChannel.tryLock();
+                if (exclusive != null) {
+                    try {
+                        if (isStale()) {
+                            build();
+                        }
+                    } finally {
+                        exclusive.release();
+                    }
+                }
+            }
+            // Waits here while another fork is building the template.
+            lockChannel.lock(0, Long.MAX_VALUE, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not lock Chrome profile template " + templateDir, e);
+        }
+        if (!Files.exists(templateDir.resolve(".warmed"))) {
+            throw new IllegalStateException("Chrome profile template " + templateDir + " was not built.");
+        }
+    }
+
+    private static boolean isStale() {
+        Path marker = templateDir.resolve(".warmed");
+        if (!Files.exists(marker)) {
+            return true;
+        }
+        try {
+            long ageMillis = System.currentTimeMillis() - Files.getLastModifiedTime(marker).toMillis();
+            return ageMillis > RunConfig.getInt("PROFILE_TEMPLATE_MAX_AGE_HOURS", 24) * 3_600_000L;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static void build() {
+        System.out.println("Warming Chrome profile template in " + templateDir);
+
+        if (Files.exists(templateDir)) {
+            delete(templateDir);
+        }
+
+        ChromeOptions options = new ChromeOptions();
+        LaunchProfile.current().applyTo(options);
+        options.addArguments("--user-data-dir=" + templateDir.toAbsolutePath());
+
+        DriverBinaryResolver.resolveChromeDriver();
+        // A managed session, so the SessionReaper kills this Chrome too if the fork dies while warming.
+        WebDriver driver = DriverFactory.launch(options, null);
+        try {
+            for (String url : List.of(RunConfig.get("PROFILE_WARM_URLS", DEFAULT_WARM_URLS).split(","))) {
+                try {
+                    driver.get(url.trim());
+                    // Letting the requests after the load event (service worker installs, lazy chunks) finish too.
+                    PageSettler.settle(driver);
+                } catch (WebDriverException e) {
+                    System.out.println("Could not warm " + url + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            // Quitting flushes the caches to disk.
+            driver.quit();
+        }
+
+        try {
+            Files.writeString(templateDir.resolve(".warmed"), Long.toString(System.currentTimeMillis()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not mark Chrome profile template as warmed", e);
+        }
+    }
+
+    // Linux cp copies the whole tree in one go and, on file systems that support it (btrfs, xfs), shares the data
+    // copy-on-write, which is as cheap as a hard link but safe to modify. Returns false if that is not available.
+    private static boolean reflinkCopy(Path clone) {
+        if (!System.getProperty("os.name").toLowerCase().contains("linux")) {
+            return false;
+        }
+        try {
+            Process cp = new ProcessBuilder("cp", "-a", "--reflink=auto", templateDir + "/.", clone.toString())
+                    .redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            if (!cp.waitFor(60, TimeUnit.SECONDS) || cp.exitValue() != 0) {
+                cp.destroyForcibly();
+                delete(clone);
+                Files.createDirectories(clone);
+                return false;
+            }
+            for (String lock : SKIPPED_FILES) {
+                Files.deleteIfExists(clone.resolve(lock));
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void cloneEntry(Path source, Path target) {
+        try {
+            if (Files.isDirectory(source)) {
+                Files.createDirectories(target);
+            } else if (!SKIPPED_FILES.contains(source.getFileName().toString()) && !Files.isSymbolicLink(source)) {
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clone " + source, e);
+        }
+    }
+}
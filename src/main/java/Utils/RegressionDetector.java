@@ -0,0 +1,92 @@
+package Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Flags tests whose duration in one run drifted away from their own history.
+// A phase counts as regressed when it took more than HISTORY_REGRESSION_PERCENT (default 50) percent longer than the
+// median of the test's previous HISTORY_BASELINE_RUNS (default 10) passing executions, and at least
+// HISTORY_MIN_DELTA_MS (default 1000) more, so a 40 ms step doubling to 80 ms is not reported.
+// Setup and teardown regressions point at the harness, test body regressions at the application under test.
+//   java -cp <test classpath> Utils.RegressionDetector [run id]     (defaults to the latest run)
+public class RegressionDetector {
+
+    private static final int MIN_BASELINE_RUNS = 3;
+
+    private final double thresholdPercent;
+    private final long minDeltaMillis;
+    private final int baselineRuns;
+
+    public record Regression(String test, TestHistory.Phase phase, long baselineMillis, long currentMillis) {
+
+        public double changePercent() {
+            return (currentMillis - baselineMillis) * 100.0 / Math.max(1, baselineMillis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: %d ms, usually %d ms (+%.0f%%)",
+                    test, phase.name().toLowerCase(), currentMillis, baselineMillis, changePercent());
+        }
+    }
+
+    public RegressionDetector(double thresholdPercent, long minDeltaMillis, int baselineRuns) {
+        this.thresholdPercent = thresholdPercent;
+        this.minDeltaMillis = minDeltaMillis;
+        this.baselineRuns = baselineRuns;
+    }
+
+    public static RegressionDetector fromConfig() {
+        return new RegressionDetector(
+                RunConfig.getInt("HISTORY_REGRESSION_PERCENT", 50),
+                RunConfig.getInt("HISTORY_MIN_DELTA_MS", 1000),
+                RunConfig.getInt("HISTORY_BASELINE_RUNS", 10));
+    }
+
+    // Compares every test of the given run with its earlier passing executions.
+    public List<Regression> detect(TestHistory history, String runId) {
+        List<Regression> regressions = new ArrayList<>();
+        for (String test : history.tests()) {
+            TestHistory.Run current = history.runOf(test, runId);
+            if (current == null) {
+                continue;
+            }
+
+            List<TestHistory.Run> baseline = new ArrayList<>();
+            for (TestHistory.Run run : history.runsOf(test)) {
+                if (run.timestamp() < current.timestamp() && run.outcome().equals("PASS")) {
+                    baseline.add(run);
+                }
+            }
+            baseline = baseline.subList(Math.max(0, baseline.size() - baselineRuns), baseline.size());
+            if (baseline.size() < MIN_BASELINE_RUNS) {
+                continue;
+            }
+
+            for (TestHistory.Phase phase : TestHistory.Phase.values()) {
+                List<Long> values = new ArrayList<>();
+                baseline.forEach(run -> values.add(phase.of(run)));
+                long usual = TestHistory.percentile(values, 50);
+                long now = phase.of(current);
+                if (now - usual >= minDeltaMillis && now > usual * (1 + thresholdPercent / 100)) {
+                    regressions.add(new Regression(test, phase, usual, now));
+                }
+            }
+        }
+        return regressions;
+    }
+
+    public static void main(String[] args) {
+        TestHistory history = TestHistory.load();
+        List<String> runIds = history.runIds();
+        if (runIds.isEmpty()) {
+            System.out.println("No test history recorded yet.");
+            return;
+        }
+        String runId = args.length > 0 ? args[0] : runIds.get(runIds.size() - 1);
+        List<Regression> regressions = fromConfig().detect(history, runId);
+        System.out.println(regressions.isEmpty() ? "No duration regressions in run " + runId
+                : "Duration regressions in run " + runId + ":");
+        regressions.forEach(regression -> System.out.println("  " + regression));
+    }
+}
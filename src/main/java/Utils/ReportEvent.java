@@ -0,0 +1,37 @@
+package Utils;
+
+import com.aventstack.extentreports.Status;
+
+// One thing that happened to the report: a test was created, a test logged a line, a fact about the environment
+// was recorded, or the report should be written. A log line may reference a screenshot (media) by its ScreenshotStore name.
+// Events are produced on the test threads and applied, in order, by the report writer thread.
+public record ReportEvent(Type type, long testId, long timestamp, String thread, String name, String description,
+                          Status status, String message, String media) {
+
+    public enum Type { CREATE_TEST, LOG, SYSTEM_INFO, FLUSH }
+
+    public static ReportEvent createTest(long testId, String name, String description) {
+        return new ReportEvent(Type.CREATE_TEST, testId, System.currentTimeMillis(), Thread.currentThread().getName(),
+                name, description, null, null, null);
+    }
+
+    public static ReportEvent log(long testId, Status status, String message) {
+        return new ReportEvent(Type.LOG, testId, System.currentTimeMillis(), Thread.currentThread().getName(),
+                null, null, status, message, null);
+    }
+
+    public static ReportEvent screenshot(long testId, Status status, String message, String media) {
+        return new ReportEvent(Type.LOG, testId, System.currentTimeMillis(), Thread.currentThread().getName(),
+                null, null, status, message, media);
+    }
+
+    public static ReportEvent systemInfo(String key, String value) {
+        return new ReportEvent(Type.SYSTEM_INFO, 0, System.currentTimeMillis(), Thread.currentThread().getName(),
+                key, null, null, value, null);
+    }
+
+    public static ReportEvent flush() {
+        return new ReportEvent(Type.FLUSH, 0, System.currentTimeMillis(), Thread.currentThread().getName(),
+                null, null, null, null, null);
+    }
+}
@@ -0,0 +1,72 @@
+package Utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Report shards: when REPORT_SHARD is set (the 'forks' Maven profile sets it to fork-<n> for every Surefire fork),
+// each JVM writes its events to REPORT_SHARD_DIR/<REPORT_RUN>/<REPORT_SHARD>.jsonl instead of one shared log,
+// so forks never write to the same file. Threads inside one JVM already share a single report writer.
+// After the run the shards are merged into one HTML report:
+//   java -cp <test classpath> Utils.ReportMerger [report.html] [run directory]
+// Without a run directory the most recently written run under REPORT_SHARD_DIR is merged.
+public class ReportMerger {
+
+    public static Path shardDirectory() {
+        return Paths.get(RunConfig.get("REPORT_SHARD_DIR", "report-shards"));
+    }
+
+    public static Path shardFile(String shard) {
+        return shardDirectory().resolve(RunConfig.get("REPORT_RUN", "latest")).resolve(shard + ".jsonl");
+    }
+
+    public static void main(String[] args) {
+        Path html = Paths.get(args.length > 0 ? args[0] : "extentReports.html");
+        Path run = args.length > 1 ? Paths.get(args[1]) : latestRun();
+
+        long start = System.currentTimeMillis();
+        ReportRenderer.Summary summary = merge(run, html);
+        System.out.println("Merged " + summary + " in " + (System.currentTimeMillis() - start) + " ms into " + html.toAbsolutePath());
+    }
+
+    public static ReportRenderer.Summary merge(Path run, Path html) {
+        List<Path> shards = shardsOf(run);
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("No report shards found in " + run.toAbsolutePath());
+        }
+        return ReportRenderer.render(shards, html);
+    }
+
+    static List<Path> shardsOf(Path run) {
+        try (Stream<Path> files = Files.list(run)) {
+            return files.filter(file -> file.toString().endsWith(".jsonl")).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the report shards in " + run.toAbsolutePath(), e);
+        }
+    }
+
+    private static Path latestRun() {
+        Path directory = shardDirectory();
+        try (Stream<Path> runs = Files.list(directory)) {
+            return runs.filter(Files::isDirectory)
+                    .max(Comparator.comparing(ReportMerger::lastModified))
+                    .orElseThrow(() -> new IllegalStateException("No report runs found in " + directory.toAbsolutePath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the report runs in " + directory.toAbsolutePath(), e);
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
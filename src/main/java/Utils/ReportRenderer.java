@@ -0,0 +1,121 @@
+package Utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Builds the HTML report from report event logs written by JsonlReportSink.
+// The logs are streamed line by line and replayed into a fresh ExtentReports model, so rendering can happen at the
+// end of a run, after a crashed run, or later on another machine:
+//   java -cp <test classpath> Utils.ReportRenderer extentReports.html report-events.jsonl [more logs...]
+// Several logs (the shards of one run) end up in one report; environment facts recorded by more than one log
+// are listed once, and a key with different values lists each distinct value.
+public class ReportRenderer {
+
+    // What went into a rendered report: tests per final status, plus the number of logs read.
+    public static class Summary {
+
+        private final Map<Status, Integer> tests = new EnumMap<>(Status.class);
+        private int logs;
+
+        public int getLogs() {
+            return logs;
+        }
+
+        public int getTests() {
+            return tests.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        public int getTests(Status status) {
+            return tests.getOrDefault(status, 0);
+        }
+
+        @Override
+        public String toString() {
+            return getTests() + " tests from " + logs + " logs: " + tests;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            throw new IllegalStateException("Usage: ReportRenderer <report.html> <events.jsonl> [<events.jsonl> ...]");
+        }
+        List<Path> logs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            logs.add(Paths.get(args[i]));
+        }
+        System.out.println(render(logs, Paths.get(args[0])));
+        System.out.println("Report written to " + Paths.get(args[0]).toAbsolutePath());
+    }
+
+    public static Summary render(List<Path> logs, Path html) {
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(new ExtentSparkReporter(html.toString()));
+
+        Path reportDirectory = html.toAbsolutePath().getParent();
+        Summary summary = new Summary();
+        Map<String, Set<String>> systemInfo = new LinkedHashMap<>();
+
+        for (Path log : logs) {
+            // Every log has its own test ids, so every log gets its own sink over the shared report.
+            ExtentReportSink sink = new ExtentReportSink(extent, reportDirectory);
+            Map<Long, Status> outcomes = new HashMap<>();
+            try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    ReportEvent event;
+                    try {
+                        event = JsonlReportSink.parse(line);
+                    } catch (RuntimeException e) {
+                        // The last line of a log cut short by a crash may be incomplete.
+                        System.out.println("Skipping unreadable line in " + log + ": " + e.getMessage());
+                        continue;
+                    }
+                    switch (event.type()) {
+                        case SYSTEM_INFO:
+                            systemInfo.computeIfAbsent(event.name(), key -> new LinkedHashSet<>()).add(event.message());
+                            break;
+                        case FLUSH:
+                            break;
+                        case CREATE_TEST:
+                            outcomes.put(event.testId(), Status.PASS);
+                            sink.accept(event);
+                            break;
+                        default:
+                            if (event.status() != null) {
+                                outcomes.merge(event.testId(), event.status(), Status::max);
+                            }
+                            sink.accept(event);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the report event log " + log, e);
+            }
+            outcomes.values().forEach(status -> summary.tests.merge(status, 1, Integer::sum));
+            summary.logs++;
+        }
+
+        systemInfo.forEach((key, values) -> extent.setSystemInfo(key, String.join(", ", values)));
+        extent.flush();
+        return summary;
+    }
+}
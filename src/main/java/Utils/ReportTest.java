@@ -0,0 +1,47 @@
+package Utils;
+
+import com.aventstack.extentreports.Status;
+import org.openqa.selenium.WebDriver;
+
+// The report entry of one running test, as handed to the tests by ExtentTestNGITestListener.getTest().
+// Logging only queues an event, the report itself is updated by the report writer thread.
+public class ReportTest {
+
+    private final AsyncReportQueue queue;
+    private final long id;
+
+    public ReportTest(AsyncReportQueue queue, long id) {
+        this.queue = queue;
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public ReportTest log(Status status, String message) {
+        queue.submit(ReportEvent.log(id, status, message));
+        return this;
+    }
+
+    // Takes a screenshot now and attaches it to this test; encoding and storing it happens in the background.
+    public ReportTest screenshot(WebDriver driver, Status status, String title) {
+        String path = ScreenshotStore.capture(driver);
+        if (path != null) {
+            queue.submit(ReportEvent.screenshot(id, status, title, path));
+        }
+        return this;
+    }
+
+    public ReportTest info(String message) {
+        return log(Status.INFO, message);
+    }
+
+    public ReportTest pass(String message) {
+        return log(Status.PASS, message);
+    }
+
+    public ReportTest fail(String message) {
+        return log(Status.FAIL, message);
+    }
+}
@@ -0,0 +1,52 @@
+package Utils;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+// Run-time switches for the test harness.
+// A value is looked up as a JVM system property first (-Dkey=value), then in .env / the environment,
+// and finally falls back to the given default, so every switch is optional.
+public class RunConfig {
+
+    private static final Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+
+    public static String get(String key, String defaultValue) {
+
+        String value = System.getProperty(key);
+
+        if (value == null) {
+            value = dotenv.get(key);
+        }
+
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+
+        return value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+
+        String value = get(key, null);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Setting " + key + " must be a number but was '" + value + "'.", e);
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+
+        String value = get(key, null);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return Boolean.parseBoolean(value);
+    }
+}
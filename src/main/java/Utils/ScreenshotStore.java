@@ -0,0 +1,140 @@
+package Utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stores screenshots for the report, content-addressed: a screenshot is saved as SCREENSHOT_DIR/<sha-256>.jpg,
+// so identical frames (a hundred tests failing on the same broken page) are written once and referenced many times.
+// The test thread only takes the PNG and hashes it; decoding and JPEG compression (SCREENSHOT_JPEG_QUALITY,
+// default 0.7) happen on a background thread.
+// SCREENSHOTS picks when screenshots are taken: "failures" (default), "steps" (also after every composite
+// page-object step) or "off".
+public class ScreenshotStore {
+
+    public enum Mode { OFF, FAILURES, STEPS }
+
+    private static final Path directory = Paths.get(RunConfig.get("SCREENSHOT_DIR", "screenshots"));
+    private static final float quality = Float.parseFloat(RunConfig.get("SCREENSHOT_JPEG_QUALITY", "0.7"));
+    private static final Mode mode = Mode.valueOf(RunConfig.get("SCREENSHOTS", Mode.FAILURES.name()).toUpperCase());
+
+    private static final Map<String, Future<?>> stored = new ConcurrentHashMap<>();
+    private static final AtomicInteger captured = new AtomicInteger();
+    private static final ExecutorService encoder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-encoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static Mode mode() {
+        return mode;
+    }
+
+    // Takes a screenshot and returns its name inside SCREENSHOT_DIR, or null if none could be taken.
+    // Event logs keep that name; where the HTML report ends up is only known when it is rendered, see linkFrom.
+    public static String capture(WebDriver driver) {
+        byte[] png;
+        try {
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (WebDriverException | ClassCastException e) {
+            System.out.println("Could not take a screenshot: " + e.getMessage().split("\n")[0]);
+            return null;
+        }
+
+        captured.incrementAndGet();
+        String hash = sha256(png);
+        Path file = directory.resolve(hash + ".jpg");
+        stored.computeIfAbsent(hash, key -> encoder.submit(() -> store(png, file)));
+        return file.getFileName().toString();
+    }
+
+    // The path an HTML report in reportDirectory should use to reference a stored screenshot.
+    public static String linkFrom(Path reportDirectory, String screenshot) {
+        // Logs recorded before screenshots were stored by name carry a path relative to the working directory.
+        Path file = screenshot.contains("/") ? Paths.get(screenshot) : directory.resolve(screenshot);
+        return reportDirectory.toAbsolutePath().normalize().relativize(file.toAbsolutePath().normalize())
+                .toString().replace('\\', '/');
+    }
+
+    // Waits until every screenshot taken so far is on disk, e.g. before the report is rendered.
+    public static void awaitPending(long timeoutSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        for (Future<?> pending : stored.values()) {
+            try {
+                pending.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                System.out.println("Screenshot not stored: " + e);
+            }
+        }
+    }
+
+    // "12 screenshots, 3 stored" - how much deduplication saved.
+    public static String statistics() {
+        return captured.get() + " screenshots, " + stored.size() + " stored";
+    }
+
+    private static void store(byte[] png, Path file) {
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            // JPEG has no alpha channel, so the screenshot is drawn onto a plain RGB image first.
+            BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            graphics.drawImage(image, 0, 0, java.awt.Color.WHITE, null);
+            graphics.dispose();
+
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, "screenshot", ".tmp");
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temporary.toFile())) {
+                ImageWriteParam parameters = writer.getDefaultWriteParam();
+                parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                parameters.setCompressionQuality(quality);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(rgb, null, null), parameters);
+            } finally {
+                writer.dispose();
+            }
+            // Written under a temporary name first, so a report never points at a half-written file.
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store screenshot " + file, e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
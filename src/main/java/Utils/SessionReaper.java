@@ -0,0 +1,286 @@
+package Utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Makes sure no browser outlives the run.
+// Every ManagedChromeDriver is registered here while it is alive. A watchdog kills the session of any test
+// that runs longer than TEST_TIME_BUDGET_SECONDS (default 300), and whatever is still registered at the end is quit.
+// When a session starts, the pids of its chromedriver and of the Chrome it launched are written to
+// SESSION_REGISTRY_DIR (default target/browser-sessions) and removed again when it quits. At suite start and end
+// the processes of every file whose JVM is gone are killed with their children: these are the browsers a crashed
+// or killed run left behind, which init adopted once their chromedriver died. Processes this run did not start,
+// such as another job's chromedriver on the same host, are never touched.
+// A summary of what was reclaimed is printed when the suite finishes.
+public class SessionReaper {
+
+    private static final Path registry = Paths.get(RunConfig.get("SESSION_REGISTRY_DIR", "target/browser-sessions"));
+
+    private static final Map<ManagedChromeDriver, Long> liveSessions = new ConcurrentHashMap<>();
+    private static final Map<ManagedChromeDriver, Path> sessionFiles = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, Long> runningTests = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger sessionsReclaimed = new AtomicInteger();
+    private static final AtomicInteger testsKilled = new AtomicInteger();
+    private static final AtomicInteger processesKilled = new AtomicInteger();
+    private static final AtomicLong memoryReclaimedKb = new AtomicLong();
+
+    private static ScheduledExecutorService watchdog;
+
+    static void register(ManagedChromeDriver driver) {
+        liveSessions.put(driver, System.currentTimeMillis());
+        recordProcesses(driver);
+    }
+
+    static void unregister(ManagedChromeDriver driver) {
+        liveSessions.remove(driver);
+        runningTests.remove(driver);
+    }
+
+    // Called once the session's processes are gone.
+    static void forget(ManagedChromeDriver driver) {
+        Path file = sessionFiles.remove(driver);
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.out.println("Could not remove session record " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static void testStarted(WebDriver driver) {
+        runningTests.put(driver, System.currentTimeMillis());
+    }
+
+    public static void testFinished(WebDriver driver) {
+        if (driver != null) {
+            runningTests.remove(driver);
+        }
+    }
+
+    public static synchronized void start() {
+        killOrphanedSessions();
+
+        if (watchdog == null) {
+            long budgetMillis = RunConfig.getInt("TEST_TIME_BUDGET_SECONDS", 300) * 1000L;
+            watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watchdog.scheduleWithFixedDelay(() -> killOverdueTests(budgetMillis), 5, 5, TimeUnit.SECONDS);
+
+            // Last line of defence when the JVM goes down without reaching the end of the suite.
+            Runtime.getRuntime().addShutdownHook(new Thread(SessionReaper::quitLeftovers, "session-reaper"));
+        }
+    }
+
+    public static synchronized void shutdown() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+            watchdog = null;
+        }
+
+        quitLeftovers();
+        killOrphanedSessions();
+
+        System.out.println("Session reaper: " + sessionsReclaimed.get() + " leaked sessions reclaimed, "
+                + testsKilled.get() + " hung tests stopped, " + processesKilled.get() + " orphaned processes killed, "
+                + memoryReclaimedKb.get() / 1024 + " MB of memory released.");
+    }
+
+    private static void killOverdueTests(long budgetMillis) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<WebDriver, Long> test : runningTests.entrySet()) {
+            if (now - test.getValue() > budgetMillis && test.getKey() instanceof ManagedChromeDriver) {
+                System.out.println("Test exceeded its " + budgetMillis / 1000 + "s budget, killing its browser session.");
+                runningTests.remove(test.getKey());
+                testsKilled.incrementAndGet();
+                forceQuit((ManagedChromeDriver) test.getKey());
+            }
+        }
+    }
+
+    private static void quitLeftovers() {
+        for (ManagedChromeDriver driver : new ArrayList<>(liveSessions.keySet())) {
+            sessionsReclaimed.incrementAndGet();
+            forceQuit(driver);
+        }
+    }
+
+    // Asks the session to quit politely and, if chromedriver does not answer in time, kills its process tree.
+    private static void forceQuit(ManagedChromeDriver driver) {
+        ExecutorService quitter = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> quit = quitter.submit(driver::quit);
+            quit.get(10, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            killDriverProcess(driver);
+        } catch (Exception e) {
+            System.out.println("Quitting a reclaimed session failed: " + e.getMessage());
+            killDriverProcess(driver);
+        } finally {
+            quitter.shutdownNow();
+            liveSessions.remove(driver);
+        }
+    }
+
+    // Kills what was recorded for the session at launch: its chromedriver and the Chrome it started.
+    private static void killDriverProcess(ManagedChromeDriver driver) {
+        Path file = sessionFiles.get(driver);
+        if (file != null) {
+            recordedProcesses(file).forEach(SessionReaper::killTree);
+        }
+        forget(driver);
+    }
+
+    // chromedriver is started with --port=<n>, which is how its process is told apart from other sessions of this JVM.
+    // Its descendants at this point are the Chrome browser and its helpers.
+    private static void recordProcesses(ManagedChromeDriver driver) {
+        String portFlag = "--port=" + driver.getService().getUrl().getPort();
+        List<ProcessHandle> processes = new ArrayList<>();
+        ProcessHandle.current().descendants()
+                .filter(process -> commandLine(process).contains(portFlag))
+                .forEach(chromedriver -> {
+                    processes.add(chromedriver);
+                    chromedriver.descendants().forEach(processes::add);
+                });
+        if (processes.isEmpty()) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(processLine(ProcessHandle.current()));
+        processes.forEach(process -> lines.add(processLine(process)));
+        try {
+            Files.createDirectories(registry);
+            Path file = registry.resolve(ProcessHandle.current().pid() + "-" + processes.get(0).pid() + ".pids");
+            Files.write(file, lines);
+            sessionFiles.put(driver, file);
+        } catch (IOException e) {
+            System.out.println("Could not record the processes of a browser session: " + e.getMessage());
+        }
+    }
+
+    // Sessions recorded by JVMs that are gone (and, at shutdown, by this one) have no owner left to quit them.
+    private static void killOrphanedSessions() {
+        if (!Files.isDirectory(registry)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(registry)) {
+            listing.filter(file -> file.toString().endsWith(".pids")).forEach(files::add);
+        } catch (IOException e) {
+            System.out.println("Could not list recorded browser sessions: " + e.getMessage());
+            return;
+        }
+
+        for (Path file : files) {
+            if (sessionFiles.containsValue(file)) {
+                continue;
+            }
+            List<String> lines = lines(file);
+            boolean ownerAlive = !lines.isEmpty() && alive(lines.get(0)).isPresent()
+                    && alive(lines.get(0)).get().pid() != ProcessHandle.current().pid();
+            if (ownerAlive) {
+                continue;
+            }
+            recordedProcesses(file).forEach(SessionReaper::killTree);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.out.println("Could not remove session record " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // The recorded processes of a session that are still running, skipping the owning JVM on the first line.
+    private static List<ProcessHandle> recordedProcesses(Path file) {
+        List<ProcessHandle> processes = new ArrayList<>();
+        List<String> lines = lines(file);
+        for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            alive(line).ifPresent(processes::add);
+        }
+        return processes;
+    }
+
+    // A process is recorded with its start time, so a pid reused by an unrelated process is never mistaken for it.
+    private static String processLine(ProcessHandle process) {
+        return process.pid() + "\t" + process.info().startInstant().map(Instant::toEpochMilli).orElse(0L);
+    }
+
+    private static Optional<ProcessHandle> alive(String line) {
+        String[] columns = line.split("\t");
+        try {
+            long started = Long.parseLong(columns[1]);
+            return ProcessHandle.of(Long.parseLong(columns[0]))
+                    .filter(ProcessHandle::isAlive)
+                    .filter(process -> process.info().startInstant().map(Instant::toEpochMilli).orElse(0L) == started);
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<String> lines(Path file) {
+        try {
+            return Files.readAllLines(file);
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private static void killTree(ProcessHandle root) {
+        List<ProcessHandle> tree = new ArrayList<>();
+        root.descendants().forEach(tree::add);
+        tree.add(root);
+
+        for (ProcessHandle process : tree) {
+            long rssKb = residentMemoryKb(process.pid());
+            if (process.destroyForcibly()) {
+                processesKilled.incrementAndGet();
+                memoryReclaimedKb.addAndGet(rssKb);
+            }
+        }
+    }
+
+    private static String commandLine(ProcessHandle process) {
+        ProcessHandle.Info info = process.info();
+        Optional<String> commandLine = info.commandLine();
+        return commandLine.orElseGet(() -> info.command().orElse(""));
+    }
+
+    // Resident memory of a process; only Linux exposes it cheaply, elsewhere it is simply not counted.
+    private static long residentMemoryKb(long pid) {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+        return 0;
+    }
+}
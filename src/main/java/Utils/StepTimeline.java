@@ -0,0 +1,201 @@
+package Utils;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Records how long every step of the running test takes, on the test's own thread.
+// Element actions (LazyElement) and waits (WaitTelemetry, BasePage) are recorded automatically and labelled with the
+// page-object method they were called from; composite page methods wrap their body in step(...) so their own
+// steps are nested under them. While a wait runs, the element calls made by its polling are not recorded.
+// ExtentTestNGITestListener starts a timeline when a test starts and attaches it to the report when it ends,
+// with the TIMELINE_HIGHLIGHT (default 3) slowest steps highlighted.
+public class StepTimeline {
+
+    private static final int MAX_STEPS = 5000;
+    private static final int HIGHLIGHT = RunConfig.getInt("TIMELINE_HIGHLIGHT", 3);
+
+    private static final ThreadLocal<Timeline> current = new ThreadLocal<>();
+    private static final StackWalker walker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private static class Step {
+
+        private final String name;
+        private final String caller;
+        private final int depth;
+        private final long startNanos;
+        private long durationNanos = -1;
+        private boolean failed;
+        private boolean hasChildren;
+
+        private Step(String name, String caller, int depth, long startNanos) {
+            this.name = name;
+            this.caller = caller;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+    }
+
+    private static class Timeline {
+
+        private final long startNanos = System.nanoTime();
+        private final List<Step> steps = new ArrayList<>();
+        private final Deque<Step> open = new ArrayDeque<>();
+        private int quiet;
+        private int dropped;
+
+        private Step open(String name, String caller) {
+            Step parent = open.peek();
+            if (parent != null) {
+                parent.hasChildren = true;
+            }
+            Step step = new Step(name, caller, open.size(), System.nanoTime());
+            if (steps.size() < MAX_STEPS) {
+                steps.add(step);
+            } else {
+                dropped++;
+            }
+            open.push(step);
+            return step;
+        }
+
+        private void close(Step step, boolean failed) {
+            step.durationNanos = System.nanoTime() - step.startNanos;
+            step.failed = failed;
+            open.remove(step);
+        }
+    }
+
+    public static void start() {
+        current.set(new Timeline());
+    }
+
+    // A composite step: everything recorded while it runs is nested under it.
+    public static <T> T step(String name, Supplier<T> action) {
+        return run(name, action, false);
+    }
+
+    public static void step(String name, Runnable action) {
+        run(name, () -> {
+            action.run();
+            return null;
+        }, false);
+    }
+
+    // A step whose inner calls are not worth listing, such as a wait and the element calls made while polling.
+    public static <T> T quietStep(String name, Supplier<T> action) {
+        return run(name, action, true);
+    }
+
+    // Returns the timeline of the test that ran on this thread as an HTML table, or null if nothing was recorded.
+    public static String finish() {
+        Timeline timeline = current.get();
+        current.remove();
+        if (timeline == null || timeline.steps.isEmpty()) {
+            return null;
+        }
+        return render(timeline);
+    }
+
+    private static <T> T run(String name, Supplier<T> action, boolean quiet) {
+        Timeline timeline = current.get();
+        if (timeline == null || timeline.quiet > 0) {
+            return action.get();
+        }
+
+        Step step = timeline.open(name, caller());
+        if (quiet) {
+            timeline.quiet++;
+        }
+        boolean failed = true;
+        try {
+            T result = action.get();
+            failed = false;
+            return result;
+        } finally {
+            if (quiet) {
+                timeline.quiet--;
+            }
+            timeline.close(step, failed);
+        }
+    }
+
+    // The innermost page-object or test method on the stack: the first frame outside the helper packages
+    // whose class can be instantiated (which skips the generic wrappers in the abstract BasePage).
+    private static String caller() {
+        Optional<StackWalker.StackFrame> frame = walker.walk(frames -> frames
+                .filter(f -> f.getDeclaringClass().getPackageName().isEmpty()
+                        && !Modifier.isAbstract(f.getDeclaringClass().getModifiers()))
+                .findFirst());
+        // A lambda inside a page method (e.g. the body of step(...)) is reported as that method.
+        return frame.map(f -> f.getDeclaringClass().getSimpleName() + "."
+                + f.getMethodName().replaceAll("^lambda\\$(.+)\\$\\d+$", "$1")).orElse("");
+    }
+
+    private static String render(Timeline timeline) {
+        long totalNanos = Math.max(1, System.nanoTime() - timeline.startNanos);
+
+        List<Step> slowest = new ArrayList<>();
+        for (Step step : timeline.steps) {
+            if (!step.hasChildren && step.durationNanos >= 0) {
+                slowest.add(step);
+            }
+        }
+        slowest.sort(Comparator.comparingLong((Step step) -> step.durationNanos).reversed());
+        slowest = slowest.subList(0, Math.min(HIGHLIGHT, slowest.size()));
+
+        StringBuilder html = new StringBuilder();
+        html.append("<details><summary>Timeline: ").append(timeline.steps.size()).append(" steps in ")
+                .append(millis(totalNanos)).append(" ms");
+        if (!slowest.isEmpty()) {
+            html.append(", slowest: ");
+            for (int i = 0; i < slowest.size(); i++) {
+                html.append(i == 0 ? "" : ", ").append(escape(slowest.get(i).name))
+                        .append(" (").append(millis(slowest.get(i).durationNanos)).append(" ms)");
+            }
+        }
+        if (timeline.dropped > 0) {
+            html.append(", ").append(timeline.dropped).append(" more steps not shown");
+        }
+        html.append("</summary>");
+
+        html.append("<table class='table table-sm'><thead><tr><th>#</th><th>at (ms)</th><th>took (ms)</th>")
+                .append("<th>step</th><th>called from</th><th style='width:20%'></th></tr></thead><tbody>");
+        int index = 1;
+        for (Step step : timeline.steps) {
+            boolean highlighted = slowest.contains(step);
+            long duration = Math.max(0, step.durationNanos);
+            html.append("<tr").append(highlighted ? " style='background:#f8d7da'" : "").append('>')
+                    .append("<td>").append(index++).append("</td>")
+                    .append("<td>").append(millis(step.startNanos - timeline.startNanos)).append("</td>")
+                    .append("<td>").append(step.durationNanos < 0 ? "unfinished" : millis(duration)).append("</td>")
+                    .append("<td style='padding-left:").append(8 + step.depth * 16).append("px'>")
+                    .append(step.hasChildren ? "<b>" : "").append(escape(step.name)).append(step.hasChildren ? "</b>" : "")
+                    .append(step.failed ? " &#10007;" : "").append("</td>")
+                    .append("<td>").append(escape(step.caller)).append("</td>")
+                    .append("<td><div style='background:").append(highlighted ? "#dc3545" : "#5c6bc0")
+                    .append(";height:6px;margin-left:").append(percent(step.startNanos - timeline.startNanos, totalNanos))
+                    .append("%;width:").append(Math.max(0.5, percent(duration, totalNanos))).append("%'></div></td>")
+                    .append("</tr>");
+        }
+        html.append("</tbody></table></details>");
+        return html.toString();
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private static double percent(long part, long total) {
+        return Math.round(part * 1000.0 / total) / 10.0;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,218 @@
+package Utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+// How long every test took, run after run, kept in TEST_HISTORY_FILE (default test-history.tsv): one line per
+// test execution with its setup (@BeforeMethod), test body and teardown (@AfterMethod) times and its outcome.
+// Setup and teardown times are about the harness (browser startup, login, cleanup); the test body is mostly
+// the application under test. ExtentTestNGITestListener appends to it; load() reads it back for queries:
+//   java -cp <test classpath> Utils.TestHistory [test name]     durations per test
+//   java -cp <test classpath> Utils.TestHistory compact [n]     keep only the last n (default 50) runs per test
+public class TestHistory {
+
+    private static final Path file = Paths.get(RunConfig.get("TEST_HISTORY_FILE", "test-history.tsv"));
+    private static final String HEADER = "timestamp\trun\ttest\toutcome\tsetup_ms\ttest_ms\tteardown_ms";
+    // Forks of one build share REPORT_RUN, so their executions count as one run.
+    private static final String runId = RunConfig.get("REPORT_RUN",
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+
+    public enum Phase {
+        SETUP(Run::setupMillis), TEST(Run::testMillis), TEARDOWN(Run::teardownMillis), TOTAL(Run::totalMillis);
+
+        private final ToLongFunction<Run> millis;
+
+        Phase(ToLongFunction<Run> millis) {
+            this.millis = millis;
+        }
+
+        public long of(Run run) {
+            return millis.applyAsLong(run);
+        }
+    }
+
+    // One execution of one test.
+    public record Run(long timestamp, String runId, String test, String outcome,
+                      long setupMillis, long testMillis, long teardownMillis) {
+
+        public long totalMillis() {
+            return setupMillis + testMillis + teardownMillis;
+        }
+
+        private String serialize() {
+            return timestamp + "\t" + runId + "\t" + test + "\t" + outcome + "\t"
+                    + setupMillis + "\t" + testMillis + "\t" + teardownMillis;
+        }
+
+        private static Run parse(String line) {
+            String[] columns = line.split("\t", -1);
+            return new Run(Long.parseLong(columns[0]), columns[1], columns[2], columns[3],
+                    Long.parseLong(columns[4]), Long.parseLong(columns[5]), Long.parseLong(columns[6]));
+        }
+    }
+
+    private final Map<String, List<Run>> runsByTest = new LinkedHashMap<>();
+    private final Set<String> runIds = new LinkedHashSet<>();
+
+    private TestHistory(List<Run> runs) {
+        for (Run run : runs) {
+            runsByTest.computeIfAbsent(run.test(), test -> new ArrayList<>()).add(run);
+            runIds.add(run.runId());
+        }
+    }
+
+    // The id executions of this JVM are recorded under.
+    public static String currentRun() {
+        return runId;
+    }
+
+    // How a test is named in the history: its class and method, e.g. LoginTest.loginToHaive.
+    public static String testName(Class<?> testClass, String method) {
+        return testClass.getSimpleName() + "." + method;
+    }
+
+    // Appends one execution. Each line goes out in a single append, so forks sharing the file do not interleave.
+    public static synchronized void append(Run run) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            String line = (Files.exists(file) ? "" : HEADER + "\n") + run.serialize() + "\n";
+            Files.write(file, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Could not record test history in " + file + ": " + e.getMessage());
+        }
+    }
+
+    public static TestHistory load() {
+        List<Run> runs = new ArrayList<>();
+        if (Files.exists(file)) {
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (line.isBlank() || line.startsWith(HEADER)) {
+                        continue;
+                    }
+                    try {
+                        runs.add(Run.parse(line));
+                    } catch (RuntimeException e) {
+                        System.out.println("Ignoring unreadable test history line: " + line);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read test history from " + file, e);
+            }
+        }
+        return new TestHistory(runs);
+    }
+
+    // Every test with at least one recorded execution, in the order they first appeared.
+    public Set<String> tests() {
+        return Collections.unmodifiableSet(runsByTest.keySet());
+    }
+
+    // Every run id, oldest first.
+    public List<String> runIds() {
+        return new ArrayList<>(runIds);
+    }
+
+    // Executions of a test, oldest first.
+    public List<Run> runsOf(String test) {
+        return Collections.unmodifiableList(runsByTest.getOrDefault(test, List.of()));
+    }
+
+    // The execution of a test in a given run, if it ran there.
+    public Run runOf(String test, String runId) {
+        Run found = null;
+        for (Run run : runsOf(test)) {
+            if (run.runId().equals(runId)) {
+                found = run;
+            }
+        }
+        return found;
+    }
+
+    // Percentile (0-100) of a phase over the last `lastRuns` executions of a test, or -1 without any.
+    public long percentile(String test, Phase phase, int percentile, int lastRuns) {
+        List<Run> runs = runsOf(test);
+        List<Long> values = new ArrayList<>();
+        for (Run run : runs.subList(Math.max(0, runs.size() - lastRuns), runs.size())) {
+            values.add(phase.of(run));
+        }
+        return percentile(values, percentile);
+    }
+
+    public long median(String test, Phase phase, int lastRuns) {
+        return percentile(test, phase, 50, lastRuns);
+    }
+
+    static long percentile(List<Long> values, int percentile) {
+        if (values.isEmpty()) {
+            return -1;
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    // Rewrites the store keeping only the last `keepPerTest` executions of every test.
+    public static synchronized void compact(int keepPerTest) {
+        TestHistory history = load();
+        List<Run> kept = new ArrayList<>();
+        for (List<Run> runs : history.runsByTest.values()) {
+            kept.addAll(runs.subList(Math.max(0, runs.size() - keepPerTest), runs.size()));
+        }
+        kept.sort((a, b) -> Long.compare(a.timestamp(), b.timestamp()));
+
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        kept.forEach(run -> lines.add(run.serialize()));
+        try {
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), "test-history", ".tmp");
+            Files.write(temporary, lines, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact test history in " + file, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("compact")) {
+            compact(args.length > 1 ? Integer.parseInt(args[1]) : 50);
+            return;
+        }
+
+        TestHistory history = load();
+        System.out.printf("%-45s %5s %10s %10s %10s %10s %10s%n",
+                "test", "runs", "setup p50", "test p50", "test p90", "teardown", "last");
+        for (String test : history.tests()) {
+            if (args.length > 0 && !test.contains(args[0])) {
+                continue;
+            }
+            List<Run> runs = history.runsOf(test);
+            Run last = runs.get(runs.size() - 1);
+            System.out.printf("%-45s %5d %10d %10d %10d %10d %10s%n", test, runs.size(),
+                    history.median(test, Phase.SETUP, runs.size()),
+                    history.median(test, Phase.TEST, runs.size()),
+                    history.percentile(test, Phase.TEST, 90, runs.size()),
+                    history.median(test, Phase.TEARDOWN, runs.size()),
+                    last.outcome() + " " + last.totalMillis());
+        }
+    }
+}
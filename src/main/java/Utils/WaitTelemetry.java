@@ -0,0 +1,254 @@
+package Utils;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Measures how long every explicit wait actually takes, per locator and condition, and keeps the numbers
+// across runs in WAIT_TELEMETRY_FILE (default wait-telemetry.tsv).
+// With ADAPTIVE_WAITS=true the timeout and polling interval of a wait are derived from what was observed:
+// the timeout becomes twice the p99 plus a second (never above the caller's timeout), and the polling interval
+// a tenth of the median, so fast elements are polled aggressively and slow ones get a realistic budget.
+// A wait that times out is recorded at its budget, and the next RECOVERY_WAITS waits on it get the caller's full
+// timeout again, so one fast history cannot keep a slow wait failing.
+// Forks share the file: each one adds only what it measured itself, merged under a lock when the JVM exits.
+public class WaitTelemetry {
+
+    private static final int MAX_SAMPLES = 200;
+    private static final int MIN_SAMPLES_FOR_ADAPTIVE = 5;
+    private static final long MIN_TIMEOUT_MILLIS = 2000;
+    private static final long MIN_POLLING_MILLIS = 25;
+    private static final long DEFAULT_POLLING_MILLIS = 500;
+    private static final int RECOVERY_WAITS = 20;
+
+    private static final Path file = Paths.get(RunConfig.get("WAIT_TELEMETRY_FILE", "wait-telemetry.tsv"));
+    private static final Path lockFile = Paths.get(file + ".lock");
+    private static final boolean adaptive = RunConfig.getBoolean("ADAPTIVE_WAITS", false);
+    private static final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(WaitTelemetry::save, "wait-telemetry"));
+    }
+
+    // Runs an explicit wait and records how long it took to be satisfied.
+    public static <T> T until(WebDriver driver, ExpectedCondition<T> condition, long timeoutSeconds) {
+        String key = keyOf(condition);
+        long timeoutMillis = timeoutFor(key, timeoutSeconds * 1000);
+
+        WebDriverWait wait = new WebDriverWait(driver, timeoutSeconds);
+        wait.withTimeout(Duration.ofMillis(timeoutMillis));
+        wait.pollingEvery(Duration.ofMillis(pollingFor(key)));
+
+        // The polling calls made while waiting are not listed separately on the test's timeline.
+        return StepTimeline.quietStep("wait for " + key, () -> {
+            long start = System.nanoTime();
+            try {
+                T result = wait.until(condition);
+                samplesOf(key).add((System.nanoTime() - start) / 1_000_000);
+                return result;
+            } catch (TimeoutException e) {
+                // The real duration is unknown but at least the budget, which is what gets recorded.
+                samplesOf(key).timedOut(timeoutMillis);
+                throw e;
+            }
+        });
+    }
+
+    public static long timeoutFor(String key, long defaultMillis) {
+        Samples observed = samples.get(key);
+        if (!adaptive || observed == null || observed.size() < MIN_SAMPLES_FOR_ADAPTIVE
+                || observed.recentlyTimedOut()) {
+            return defaultMillis;
+        }
+        long derived = observed.percentile(99) * 2 + 1000;
+        return Math.min(defaultMillis, Math.max(MIN_TIMEOUT_MILLIS, derived));
+    }
+
+    public static long pollingFor(String key) {
+        Samples observed = samples.get(key);
+        if (!adaptive || observed == null || observed.size() < MIN_SAMPLES_FOR_ADAPTIVE) {
+            return DEFAULT_POLLING_MILLIS;
+        }
+        return Math.min(DEFAULT_POLLING_MILLIS, Math.max(MIN_POLLING_MILLIS, observed.percentile(50) / 10));
+    }
+
+    // Merges what this JVM measured into the file. The lock keeps forks from overwriting each other's samples;
+    // the file is read again under it, so whatever other forks saved in the meantime is kept.
+    public static synchronized void save() {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel lock = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lock.lock()) {
+                Map<String, Samples> merged = read();
+                for (Map.Entry<String, Samples> entry : samples.entrySet()) {
+                    merged.computeIfAbsent(entry.getKey(), k -> new Samples()).merge(entry.getValue());
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    for (Map.Entry<String, Samples> entry : merged.entrySet()) {
+                        Samples merging = entry.getValue();
+                        writer.write(entry.getKey() + "\t" + merging.timeouts() + "\t" + merging.serialize()
+                                + "\t" + merging.waitsSinceTimeout());
+                        writer.newLine();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not save wait telemetry to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void load() {
+        samples.putAll(read());
+        // What was loaded is already in the file; only what this JVM measures from now on gets merged back.
+        samples.values().forEach(Samples::markSaved);
+    }
+
+    private static Map<String, Samples> read() {
+        Map<String, Samples> read = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return read;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] columns = line.split("\t", -1);
+                if (columns.length >= 3) {
+                    read.put(columns[0], Samples.parse(Integer.parseInt(columns[1]), columns[2],
+                            columns.length > 3 ? Integer.parseInt(columns[3]) : RECOVERY_WAITS));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Ignoring unreadable wait telemetry in " + file + ": " + e.getMessage());
+        }
+        return read;
+    }
+
+    // The condition's description names both the condition and the locator, e.g.
+    // "visibility of Element LoginPage.datePicker for: CachingElementLocator 'By.id: date'".
+    // Descriptions of plain WebElements carry the session id, which is stripped so runs share one key.
+    private static String keyOf(ExpectedCondition<?> condition) {
+        return condition.toString().replaceAll("\\([0-9a-f]{32}\\)", "").replaceAll("\\s+", " ");
+    }
+
+    private static Samples samplesOf(String key) {
+        return samples.computeIfAbsent(key, k -> new Samples());
+    }
+
+    private static class Samples {
+
+        private final Deque<Long> millis = new ArrayDeque<>();
+        private int timeouts;
+        private int waitsSinceTimeout = RECOVERY_WAITS;
+        // What this JVM measured and has not written to the file yet
+        private final List<Long> unsaved = new ArrayList<>();
+        private int unsavedTimeouts;
+        private boolean timedOutHere;
+
+        private synchronized void add(long elapsedMillis) {
+            record(elapsedMillis);
+            unsaved.add(elapsedMillis);
+            waitsSinceTimeout++;
+        }
+
+        private synchronized void timedOut(long budgetMillis) {
+            record(budgetMillis);
+            unsaved.add(budgetMillis);
+            timeouts++;
+            unsavedTimeouts++;
+            waitsSinceTimeout = 0;
+            timedOutHere = true;
+        }
+
+        private void record(long elapsedMillis) {
+            millis.addLast(elapsedMillis);
+            if (millis.size() > MAX_SAMPLES) {
+                millis.removeFirst();
+            }
+        }
+
+        private synchronized boolean recentlyTimedOut() {
+            return waitsSinceTimeout < RECOVERY_WAITS;
+        }
+
+        private synchronized void markSaved() {
+            unsaved.clear();
+            unsavedTimeouts = 0;
+            timedOutHere = false;
+        }
+
+        // Adds what another Samples measured but has not saved yet.
+        private synchronized void merge(Samples other) {
+            synchronized (other) {
+                other.unsaved.forEach(this::record);
+                timeouts += other.unsavedTimeouts;
+                waitsSinceTimeout = other.timedOutHere
+                        ? Math.min(waitsSinceTimeout, other.waitsSinceTimeout)
+                        : Math.min(RECOVERY_WAITS, waitsSinceTimeout + other.unsaved.size());
+                other.markSaved();
+            }
+        }
+
+        private synchronized int timeouts() {
+            return timeouts;
+        }
+
+        private synchronized int waitsSinceTimeout() {
+            return waitsSinceTimeout;
+        }
+
+        private synchronized int size() {
+            return millis.size();
+        }
+
+        private synchronized long percentile(int percentile) {
+            List<Long> sorted = new ArrayList<>(millis);
+            Collections.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+            return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+        }
+
+        private synchronized String serialize() {
+            StringBuilder out = new StringBuilder();
+            for (Long value : millis) {
+                if (out.length() > 0) {
+                    out.append(',');
+                }
+                out.append(value);
+            }
+            return out.toString();
+        }
+
+        private static Samples parse(int timeouts, String serialized, int waitsSinceTimeout) {
+            Samples parsed = new Samples();
+            parsed.timeouts = timeouts;
+            parsed.waitsSinceTimeout = waitsSinceTimeout;
+            for (String value : serialized.split(",")) {
+                if (!value.isEmpty()) {
+                    parsed.record(Long.parseLong(value));
+                }
+            }
+            return parsed;
+        }
+    }
+}
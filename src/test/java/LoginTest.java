@@ -4,7 +4,6 @@ import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
@@ -22,22 +21,23 @@ import static org.testng.Assert.assertEquals;
 
 // This annotation is used to specify that the ExtentTestNGITestListener class should be used to listen to the test events.
 // The listener will generate reports based on the test results using the ExtentReports library.
-@Listeners(ExtentTestNGITestListener.class)
+@Listeners({ExtentTestNGITestListener.class, StartUrlInterceptor.class, DurationScheduler.class})
+
+// The HAIVE tests share one organisation in the database, and the tearDown after each of them deletes its venues,
+// so they must not overlap: singleThreaded runs all methods of this class on one thread, even with -Pparallel.
+// Public methods without their own @Test would count as tests too, so the page object accessors are private.
+@Test(singleThreaded = true)
 
 // Declaring the CheckoutTest class, which extends the Hooks class.
 // By extending Hooks, CheckoutTest inherits the setup and teardown methods for WebDriver.
 public class LoginTest extends Hooks {
 
     private static final Logger log = LoggerFactory.getLogger(LoginTest.class);
-    // Declaring a public variable of type CheckoutPage named 'checkoutPage'.
-    // This will be used to interact with the CheckoutPage object during the tests.
-    public LoginPage loginPage;
-
-    // Declaring a public variable of type WebDriverWait named 'wait'.
-    // WebDriverWait is used to explicitly wait for certain conditions or elements during test execution.
-    public WebDriverWait wait;
+    // Declaring a ThreadLocal holder of type LoginPage named 'loginPage'.
+    // Every worker thread gets its own page object, bound to its own WebDriver, so tests can run in parallel.
+    private final ThreadLocal<LoginPage> loginPage = new ThreadLocal<>();
 
-    public SoftAssert softAssert;
+    private final ThreadLocal<SoftAssert> softAssert = new ThreadLocal<>();
 
     // Method annotated with @BeforeMethod, indicating that it will run before each test method.
     // This method is used to set up the page objects and other necessary components before each test.
@@ -46,44 +46,46 @@ public class LoginTest extends Hooks {
 
         // Initializing the checkoutPage object with the current WebDriver instance.
         // This allows the test methods to interact with elements on the checkout page.
-        loginPage = new LoginPage(driver);
+        loginPage.set(new LoginPage(getDriver()));
+
+        softAssert.set(new SoftAssert());
+    }
 
-        // Initializing the WebDriverWait object with the current WebDriver instance and a timeout of 30 seconds.
-        // This wait will be used to pause the execution until certain conditions are met or elements are found.
-        wait = new WebDriverWait(driver, 30);
-        softAssert = new SoftAssert();
+    private LoginPage loginPage() {
+        return loginPage.get();
     }
 
+    private SoftAssert softAssert() {
+        return softAssert.get();
+    }
+
+    @StartUrl(StartUrl.FASTTRACKIT)
     @Test(description = "Login test")
-    public void loginTest() throws InterruptedException {
-        loginPage.loginUser();
-        wait.until(ExpectedConditions.visibilityOf(loginPage.getUserLoggedIn()));
+    public void loginTest() {
+        loginPage().loginUser();
+        loginPage().waitFor(ExpectedConditions.visibilityOf(loginPage().getUserLoggedIn()), TEST_WAIT_SECONDS);
 //        Thread.sleep(5000);
-        assertEquals(loginPage.getUserLoggedIn().getText(), "dino");
+        assertEquals(loginPage().getUserLoggedIn().getText(), "dino");
     }
 
+    @StartUrl(StartUrl.FASTTRACKIT)
     @Test(description = "Sorting test (Z to A)")
-    public void sortTest1() throws InterruptedException {
-        List<WebElement> productElements = loginPage.getProductElements();
-        List<String> actualProductNames = new ArrayList<>();
-        loginPage.selectOption(loginPage.getSortBar(), "Sort by name (Z to A)");
-        Thread.sleep(5000);
-        for(WebElement productElement : productElements) {
-            actualProductNames.add(productElement.getText());
-        }
+    public void sortTest1() {
+        loginPage().selectOption(loginPage().getSortBar(), "Sort by name (Z to A)");
+        loginPage().waitForPageToSettle();
+        List<String> actualProductNames = loginPage().getProductNames();
         List<String> expectedProductNames = new ArrayList<>(actualProductNames);
         expectedProductNames.sort(Comparator.reverseOrder());
         Assert.assertEquals(actualProductNames, expectedProductNames, "The products are not sorted in reverse alphabetical order");
     }
 
+    @StartUrl(StartUrl.FASTTRACKIT)
     @Test(description = "Sorting test (low to high)")
-    public void sortTest2() throws InterruptedException {
-        List<WebElement> priceElementsBeforeSort = loginPage.getPriceElements();
+    public void sortTest2() {
         List<String> actualPrices = new ArrayList<>();
-        loginPage.selectOption(loginPage.getSortBar(), "Sort by price (low to high)");
-        Thread.sleep(5000);
-        for(WebElement productElement : priceElementsBeforeSort) {
-            String text = productElement.getText();
+        loginPage().selectOption(loginPage().getSortBar(), "Sort by price (low to high)");
+        loginPage().waitForPageToSettle();
+        for(String text : loginPage().getPriceTexts()) {
             String price = text.replaceAll("[^.0-9]", "");
             if(price.matches(".*\\d.*")){
                 actualPrices.add(price);
@@ -93,14 +95,13 @@ public class LoginTest extends Hooks {
         assertEquals(actualPrices, expectedPrices, "The products are not sorted from low to high");
     }
 
+    @StartUrl(StartUrl.FASTTRACKIT)
     @Test(description = "Sorting test (high to low)")
-    public void sortTest3() throws InterruptedException {
-        List<WebElement> priceElements = loginPage.getPriceElements();
+    public void sortTest3() {
         List<String> actualPrices = new ArrayList<>();
-        loginPage.selectOption(loginPage.getSortBar(), "Sort by price (high to low)");
-        Thread.sleep(5000);
-        for(WebElement productElement : priceElements) {
-            String text = productElement.getText();
+        loginPage().selectOption(loginPage().getSortBar(), "Sort by price (high to low)");
+        loginPage().waitForPageToSettle();
+        for(String text : loginPage().getPriceTexts()) {
             String price = text.replaceAll("[^.0-9]", "");
             if(price.matches(".*\\d.*")){
                 actualPrices.add(price);
@@ -110,84 +111,83 @@ public class LoginTest extends Hooks {
         Assert.assertEquals(actualPrices, expectedPrices, "The products are not sorted from high to low");
     }
 
-    @Test(description = "login to HAIVE")
+    @Test(description = "login to HAIVE", groups = HAIVE_ORG)
     public void loginToHaive() {
-        loginPage.clickAuthentificate();
-        wait.until(ExpectedConditions.visibilityOf(loginPage.onLoginPage()));
-        assertEquals(loginPage.onLoginPage().getText(), "Autentificare");
-        loginPage.setEmail();
-        loginPage.setPassword();
-        loginPage.clickSecondAuthentificate();
-        wait.until(ExpectedConditions.visibilityOf(loginPage.onDashboard()));
-        assertEquals(loginPage.onDashboard().getText(), "Vedeți cum merge afacerea dvs");
+        loginPage().clickAuthentificate();
+        loginPage().waitFor(ExpectedConditions.visibilityOf(loginPage().onLoginPage()), TEST_WAIT_SECONDS);
+        assertEquals(loginPage().onLoginPage().getText(), "Autentificare");
+        loginPage().setEmail();
+        loginPage().setPassword();
+        loginPage().clickSecondAuthentificate();
+        loginPage().waitFor(ExpectedConditions.visibilityOf(loginPage().onDashboard()), TEST_WAIT_SECONDS);
+        assertEquals(loginPage().onDashboard().getText(), "Vedeți cum merge afacerea dvs");
     }
 
-    @Test(description = "Add a location in HAIVE")
-    public void addLocation() throws InterruptedException {
-        loginPage.loginToHaive();
-        loginPage.clickOnLocationsTab();
-        wait.until(ExpectedConditions.visibilityOf(loginPage.waitTextBeforeCreatingLocations()));
-        loginPage.clickOnCreateLocation();
-        wait.until(ExpectedConditions.visibilityOf(loginPage.waitTextAfterCreatingLocations()));
-        loginPage.sendKeysWhenReady(loginPage.getName(), "Best of Town");
-        loginPage.insertLocationAddress();
-        loginPage.insertLocationCity();
-        loginPage.insertLocationPostcode();
-        ((JavascriptExecutor)driver).executeScript("window.scrollTo(580, 2800);");
-        Thread.sleep(5000);
-        loginPage.clickOnButtonCreateLocation();
-        wait.until(ExpectedConditions.visibilityOf(loginPage.getNameOfLocation()));
-        Thread.sleep(3000);
-        assertEquals(loginPage.getNameOfLocation().getText(), "Best of Town");
+    @Test(description = "Add a location in HAIVE", groups = HAIVE_ORG)
+    public void addLocation() {
+        loginPage().ensureLoggedInToHaive();
+        loginPage().clickOnLocationsTab();
+        loginPage().waitFor(ExpectedConditions.visibilityOf(loginPage().waitTextBeforeCreatingLocations()), TEST_WAIT_SECONDS);
+        loginPage().clickOnCreateLocation();
+        loginPage().waitFor(ExpectedConditions.visibilityOf(loginPage().waitTextAfterCreatingLocations()), TEST_WAIT_SECONDS);
+        loginPage().waitFor(ExpectedConditions.elementToBeClickable(loginPage().getName()));
+        loginPage().fillLocationForm();
+        ((JavascriptExecutor)getDriver()).executeScript("window.scrollTo(580, 2800);");
+        loginPage().waitForPageToSettle();
+        loginPage().clickOnButtonCreateLocation();
+        loginPage().waitFor(ExpectedConditions.visibilityOf(loginPage().getNameOfLocation()), TEST_WAIT_SECONDS);
+        loginPage().waitForPageToSettle();
+        assertEquals(loginPage().getNameOfLocation().getText(), "Best of Town");
     }
 
-    @Test(description = "Log out from HAIVE")
-    public void logoutFromHaive() throws InterruptedException {
-        loginPage.loginToHaive();
-        loginPage.clickLogoutIcon();
-        wait.until(ExpectedConditions.visibilityOf(loginPage.getLogoutButton()));
-        loginPage.clickLogoutButton();
-        Thread.sleep(2000);
-        assertEquals(loginPage.getLogoutHeading().getText(), "Autentificare");
+    @Test(description = "Log out from HAIVE", groups = HAIVE_ORG)
+    public void logoutFromHaive() {
+        // Logging in through the form on purpose: logging out ends the session, so it must not be the cached one.
+        loginPage().loginToHaive();
+        loginPage().clickLogoutIcon();
+        loginPage().waitFor(ExpectedConditions.visibilityOf(loginPage().getLogoutButton()), TEST_WAIT_SECONDS);
+        loginPage().clickLogoutButton();
+        loginPage().waitForPageToSettle();
+        assertEquals(loginPage().getLogoutHeading().getText(), "Autentificare");
     }
 
-    @Test(description = "Working with dashboard")
-    public void dashboard() throws InterruptedException {
-        loginPage.loginToHaive();
-//        wait.until(ExpectedConditions.visibilityOf(loginPage.getDate()));
-//        loginPage.clickDate();
-        loginPage.clickWhenReady(loginPage.getDate());
-        loginPage.clickPreviousMonth();
-        loginPage.clickDay1();
-        loginPage.clickDay3();
+    @Test(description = "Working with dashboard", groups = HAIVE_ORG)
+    public void dashboard() {
+        loginPage().ensureLoggedInToHaive();
+//        loginPage().waitFor(ExpectedConditions.visibilityOf(loginPage().getDate()), TEST_WAIT_SECONDS);
+//        loginPage().clickDate();
+        loginPage().clickWhenReady(loginPage().getDate());
+        loginPage().clickPreviousMonth();
+        loginPage().clickDay1();
+        loginPage().clickDay3();
     }
 
-    @Test(description = "Adding a menu in Haive")
-    public void addingMenu() throws InterruptedException {
-        loginPage.loginToHaive();
-        loginPage.clickMenuTab();
-        Thread.sleep(2000);
-        loginPage.clickCreateMenuFirstButton();
-        loginPage.insertMenuName();
-        loginPage.clickCreateMenuSecondButton();
-        Thread.sleep(3000);
-        assertEquals(loginPage.getCheckMenu().getText(), "Burgers");
+    @Test(description = "Adding a menu in Haive", groups = HAIVE_ORG)
+    public void addingMenu() {
+        loginPage().ensureLoggedInToHaive();
+        loginPage().clickMenuTab();
+        loginPage().waitForPageToSettle();
+        loginPage().clickCreateMenuFirstButton();
+        loginPage().insertMenuName();
+        loginPage().clickCreateMenuSecondButton();
+        loginPage().waitForPageToSettle();
+        assertEquals(loginPage().getCheckMenu().getText(), "Burgers");
     }
 
-    @Test(description = "Adding a category to menu and deleting it")
-    public void addingCategoryToMenu() throws InterruptedException {
-        loginPage.loginToHaive();
-        loginPage.clickMenuTab();
-        Thread.sleep(3000);
-        loginPage.clickBurgersButton();
-        Thread.sleep(3000);
-        loginPage.clickNewCategory();
-        loginPage.insertCategoryName();
-        loginPage.clickCreateCategoryButton();
-        Thread.sleep(3000);
-        assertEquals(loginPage.getCategory().getText(), "Burgeri mexicani (0)");
-        loginPage.clickDeleteCategoryButton();
-        Thread.sleep(3000);
+    @Test(description = "Adding a category to menu and deleting it", groups = HAIVE_ORG)
+    public void addingCategoryToMenu() {
+        loginPage().ensureLoggedInToHaive();
+        loginPage().clickMenuTab();
+        loginPage().waitForPageToSettle();
+        loginPage().clickBurgersButton();
+        loginPage().waitForPageToSettle();
+        loginPage().clickNewCategory();
+        loginPage().insertCategoryName();
+        loginPage().clickCreateCategoryButton();
+        loginPage().waitForPageToSettle();
+        assertEquals(loginPage().getCategory().getText(), "Burgeri mexicani (0)");
+        loginPage().clickDeleteCategoryButton();
+        loginPage().waitForPageToSettle();
     }
 }
 
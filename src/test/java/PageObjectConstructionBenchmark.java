@@ -0,0 +1,81 @@
+import Utils.PageFactoryBaseline;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+// Compares the cost of building page objects with the generated bindings against the reflective
+// PageFactory.initElements they replaced. No browser is needed: neither approach talks to the driver
+// while a page object is built, so a stub driver is enough.
+// Run it with: mvn test-compile exec:java -Dexec.mainClass=PageObjectConstructionBenchmark
+// (or straight from the IDE). Optional arguments: -Dexec.args="<iterations> <warmup iterations>".
+public class PageObjectConstructionBenchmark {
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        WebDriver driver = stubDriver();
+
+        // Cold costs first, before either code path has been loaded and compiled by the JIT.
+        long start = System.nanoTime();
+        LoginPage loginPage = new LoginPage(driver);
+        report("cold, generated", 1, System.nanoTime() - start);
+        report("cold, PageFactory", 1, time(1, i -> reflective(driver, loginPage)));
+        CheckoutPage checkoutPage = new CheckoutPage(driver);
+
+        time(warmup, i -> new LoginPage(driver));
+        time(warmup, i -> reflective(driver, loginPage));
+        time(warmup, i -> new CheckoutPage(driver));
+        time(warmup, i -> reflective(driver, checkoutPage));
+
+        // "generated" is the whole constructor, binding included; "PageFactory" is only the initElements call
+        // the constructor used to make, so the comparison is, if anything, in PageFactory's favour.
+        report("LoginPage, generated", iterations, time(iterations, i -> new LoginPage(driver)));
+        report("LoginPage, PageFactory", iterations, time(iterations, i -> reflective(driver, loginPage)));
+        report("CheckoutPage, generated", iterations, time(iterations, i -> new CheckoutPage(driver)));
+        report("CheckoutPage, PageFactory", iterations, time(iterations, i -> reflective(driver, checkoutPage)));
+    }
+
+    // What BasePage did before the bindings were generated.
+    private static Object reflective(WebDriver driver, BasePage page) {
+        PageFactory.initElements(PageFactoryBaseline.decorator(driver), page);
+        return page;
+    }
+
+    private static long time(int iterations, Function<Integer, Object> build) {
+        Object last = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            last = build.apply(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (last == null) {
+            throw new IllegalStateException("Nothing was built");
+        }
+        return elapsed;
+    }
+
+    private static void report(String label, int iterations, long nanos) {
+        System.out.printf("%-28s %12.1f ns/page   (%d pages)%n", label, (double) nanos / iterations, iterations);
+    }
+
+    // A driver that fails loudly if building a page object ever tries to reach the browser.
+    private static WebDriver stubDriver() {
+        return (WebDriver) Proxy.newProxyInstance(PageObjectConstructionBenchmark.class.getClassLoader(),
+                new Class[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return "stub driver";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException("Page construction called " + method.getName());
+                    }
+                });
+    }
+}
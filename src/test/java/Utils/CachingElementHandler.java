@@ -0,0 +1,52 @@
+package Utils;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+// Sat behind every WebElement field of a page object initialised by PageFactory (see PageFactoryBaseline).
+// Calls go to the element the locator has cached; when the element turns out to be stale it is located once
+// more and the call is retried a single time.
+public class CachingElementHandler implements InvocationHandler {
+
+    private final ElementLocator locator;
+
+    public CachingElementHandler(ElementLocator locator) {
+        this.locator = locator;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        // Describing the field must not cost a round trip, and must not depend on the session (wait telemetry keys on it).
+        if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+            return "Proxy element for: " + locator;
+        }
+
+        WebElement element = locator.findElement();
+        if ("getWrappedElement".equals(method.getName())) {
+            return element;
+        }
+
+        try {
+            return invokeOn(element, method, args);
+        } catch (StaleElementReferenceException e) {
+            if (!(locator instanceof CachingElementLocator)) {
+                throw e;
+            }
+            ((CachingElementLocator) locator).invalidate();
+            return invokeOn(locator.findElement(), method, args);
+        }
+    }
+
+    private static Object invokeOn(WebElement element, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(element, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
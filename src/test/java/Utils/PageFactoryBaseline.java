@@ -0,0 +1,34 @@
+package Utils;
+
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+// How page objects were initialised before the bindings were generated: PageFactory reads every @FindBy
+// reflectively and puts a CachingElementHandler proxy into the field. Kept only as the baseline
+// PageObjectConstructionBenchmark measures the generated bindings against.
+public class PageFactoryBaseline {
+
+    // The decorator PageFactory.initElements(decorator, page) needs.
+    public static FieldDecorator decorator(SearchContext searchContext) {
+        CachingElementLocatorFactory factory = new CachingElementLocatorFactory(searchContext);
+        ElementLocatorFactory locators = field -> factory.createLocator(new Annotations(field).buildBy());
+        return new DefaultFieldDecorator(locators) {
+            @Override
+            protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+                InvocationHandler handler = new CachingElementHandler(locator);
+                return (WebElement) Proxy.newProxyInstance(loader,
+                        new Class[]{WebElement.class, WrapsElement.class, Locatable.class}, handler);
+            }
+        };
+    }
+}